@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BulkBookingDecisionDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
 
 import java.util.Map;
 
@@ -17,28 +22,38 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+            MeterRegistry meterRegistry, ServerResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingDto bookingDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(Long userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> confirmationBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> confirmationBooking(long userId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> confirmationBookings(long userId,
+                                                                       BulkBookingDecisionDto bulkDecisionDto) {
+        return patch("/bulk", userId, bulkDecisionDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingByUser(Long userId, String state, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingByUser(Long userId, String state, int from, int size,
+                                                       @Nullable String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state,
+                    "size", size,
+                    "after", after
+            );
+            return get("?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
@@ -47,7 +62,16 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwner(Long userId, String state, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingByOwner(Long userId, String state, int from, int size,
+                                                       @Nullable String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state,
+                    "size", size,
+                    "after", after
+            );
+            return get("/owner?state={state}&size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
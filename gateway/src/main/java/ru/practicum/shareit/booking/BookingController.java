@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,7 +14,10 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BulkBookingDecisionDto;
 import ru.practicum.shareit.exceptions.BookingStartAndEndDateError;
 
 import javax.validation.Valid;
@@ -30,7 +34,7 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @Valid @RequestBody BookingDto bookingDto) {
         log.info("POST /bookings : create booking from DTO - {}, user ID {}", bookingDto, userId);
@@ -39,7 +43,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirmationBooking(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> confirmationBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PathVariable Long bookingId,
             @RequestParam boolean approved) {
@@ -48,33 +52,43 @@ public class BookingController {
         return bookingClient.confirmationBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> confirmationBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @Valid @RequestBody BulkBookingDecisionDto bulkDecisionDto) {
+        log.info("PATCH /bookings/bulk : update statuses of bookings - {}, user ID {}", bulkDecisionDto, userId);
+        return bookingClient.confirmationBookings(userId, bulkDecisionDto);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long bookingId) {
         log.info("GET /bookings/{} : get booking by ID by user ID {}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingByUser(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", defaultValue = "ALL", required = false) String state,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
-        log.info("GET /bookings?state={}&from={}&size={} : get list of bookings by user ID {} with state",
-                state, from, size, userId);
-        return bookingClient.getAllBookingByUser(userId, state, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /bookings?state={}&from={}&size={}&after={} : "
+                        + "get list of bookings by user ID {} with state", state, from, size, after, userId);
+        return bookingClient.getAllBookingByUser(userId, state, from, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingByOwner(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllBookingByOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", defaultValue = "ALL", required = false) String state,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
-        log.info("GET /bookings/owner?state={}&from={}&size={} : get list of bookings by owner ID {} with state",
-                state, from, size, userId);
-        return bookingClient.getAllBookingByOwner(userId, state, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /bookings/owner?state={}&from={}&size={}&after={} : "
+                        + "get list of bookings by owner ID {} with state", state, from, size, after, userId);
+        return bookingClient.getAllBookingByOwner(userId, state, from, size, after);
     }
 
     private void checkStartAndEnd(BookingDto bookingDto) {
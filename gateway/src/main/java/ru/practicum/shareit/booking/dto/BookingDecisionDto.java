@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingDecisionDto {
+
+    @NotNull(message = "Decision's bookingId can't be null")
+    private Long bookingId;
+
+    @NotNull(message = "Decision's approved can't be null")
+    private Boolean approved;
+
+}
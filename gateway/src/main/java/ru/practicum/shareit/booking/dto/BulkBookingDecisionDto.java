@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkBookingDecisionDto {
+
+    @NotEmpty(message = "Decisions can't be empty")
+    @Size(max = 100, message = "No more than 100 decisions at once")
+    private List<@NotNull @Valid BookingDecisionDto> decisions;
+
+}
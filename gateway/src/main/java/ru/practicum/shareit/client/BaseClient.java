@@ -2,120 +2,234 @@ package ru.practicum.shareit.client;
 
 import java.util.List;
 import java.util.Map;
-
-import org.springframework.http.HttpEntity;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE);
+
+    protected final WebClient webClient;
+    private final Map<String, Mono<ResponseEntity<byte[]>>> inFlightGets = new ConcurrentHashMap<>();
+    private final Counter upstreamGets;
+    private final Counter mergedGets;
+    private final ServerResponseCache responseCache;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    public BaseClient(WebClient webClient, MeterRegistry meterRegistry, ServerResponseCache responseCache) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        this.upstreamGets = coalescingCounter(meterRegistry, "upstream");
+        this.mergedGets = coalescingCounter(meterRegistry, "merged");
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCached(String path) {
+        return getCached(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCached(String path, long userId) {
+        return getCached(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return getCached(path, userId, parameters, true);
+    }
+
+    /**
+     * Same as {@link #getCached(String, Long, Map)} for responses that do not depend on the caller: identical
+     * requests from different users share one upstream call and one cache entry.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> getCachedForAnyUser(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return getCached(path, userId, parameters, false);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> getCached(String path, Long userId, @Nullable Map<String, Object> parameters, boolean perUser) {
+        String key = requestKey(path, perUser ? userId : null, parameters);
+        String cacheKey = getClass().getSimpleName() + " " + key;
+        return Mono.defer(() -> {
+            ResponseEntity<byte[]> fresh = responseCache.getFresh(cacheKey);
+            if (fresh != null) {
+                return Mono.just(toStreamingResponse(fresh));
+            }
+            return coalesce(key, () -> {
+                long generation = responseCache.generation();
+                ResponseEntity<byte[]> cached = responseCache.get(cacheKey);
+                String etag = cached != null ? cached.getHeaders().getETag() : null;
+                return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, etag)
+                        .flatMap(BaseClient::aggregate)
+                        .map(response -> {
+                            if (cached != null && response.getStatusCodeValue() == HttpStatus.NOT_MODIFIED.value()) {
+                                responseCache.put(cacheKey, cached, generation);
+                                return cached;
+                            }
+                            if (response.getStatusCodeValue() == HttpStatus.OK.value() && response.getHeaders().getETag() != null) {
+                                responseCache.put(cacheKey, response, generation);
+                            }
+                            return response;
+                        });
+            });
+        });
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return makeAndSendRequest(method, path, userId, parameters, body, null);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body, @Nullable String etag) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                });
+        Mono<ResponseEntity<Flux<DataBuffer>>> response = (body != null ? request.bodyValue(body) : request)
+                .retrieve()
+                .onStatus(status -> true, clientResponse -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(BaseClient::prepareGatewayResponse);
+        return method == HttpMethod.GET ? response : response.doFinally(signal -> responseCache.markStale());
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    protected static ResponseEntity<Flux<DataBuffer>> jsonResponse(byte[] json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(json.length)
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(json)));
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> coalesce(String key, Supplier<Mono<ResponseEntity<byte[]>>> upstream) {
+        return Mono.defer(() -> {
+            boolean[] leader = {false};
+            Mono<ResponseEntity<byte[]>> call = inFlightGets.computeIfAbsent(key, k -> {
+                leader[0] = true;
+                return upstream.get()
+                        .doFinally(signal -> inFlightGets.remove(k))
+                        .cache();
+            });
+            (leader[0] ? upstreamGets : mergedGets).increment();
+            return call.map(BaseClient::toStreamingResponse);
+        });
+    }
+
+    private static String requestKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return path + " " + (parameters != null ? new TreeMap<>(parameters) : Map.of()) + " " + userId;
+    }
+
+    private Counter coalescingCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("shareit.gateway.get.requests")
+                .description("Gateway GET calls served by their own upstream request or merged into an in-flight one")
+                .tag("client", getClass().getSimpleName())
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Mono<ResponseEntity<byte[]>> aggregate(ResponseEntity<Flux<DataBuffer>> response) {
+        return DataBufferUtils.join(Objects.requireNonNull(response.getBody()))
+                .map(buffer -> {
+                    byte[] bytes = new byte[buffer.readableByteCount()];
+                    buffer.read(bytes);
+                    DataBufferUtils.release(buffer);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .map(bytes -> new ResponseEntity<>(bytes, response.getHeaders(), response.getStatusCodeValue()));
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> toStreamingResponse(ResponseEntity<byte[]> response) {
+        Flux<DataBuffer> body = Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(Objects.requireNonNull(response.getBody())));
+        return new ResponseEntity<>(body, response.getHeaders(), response.getStatusCodeValue());
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(response.getHeaders());
+        HOP_BY_HOP_HEADERS.forEach(headers::remove);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCodeValue());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits of the gateway cache for ETag-tagged server responses, see {@link ServerResponseCache}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ServerCacheProperties {
+
+    /**
+     * Total size of cached response bodies; least recently used entries are evicted first.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(32);
+
+    /**
+     * Entries are dropped this long after being stored, even if they are still valid on the server.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Entries younger than this are returned without revalidation, so writes made through other gateway nodes
+     * can stay unseen this long. Zero revalidates on every read.
+     */
+    private Duration maxAge = Duration.ofSeconds(5);
+
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool settings for gateway-to-server traffic, shared by every {@link BaseClient}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.connection")
+public class ServerConnectionProperties {
+
+    /**
+     * Maximum open connections to the server; the gateway talks to a single route.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Requests allowed to wait for a free connection before failing fast.
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Idle connections older than this are closed by the background eviction task.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    private Duration evictionInterval = Duration.ofSeconds(15);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Speak cleartext HTTP/2 (h2c) to the server, falling back to HTTP/1.1; needs {@code server.http2.enabled=true}
+     * on the server.
+     */
+    private boolean h2c = false;
+
+}
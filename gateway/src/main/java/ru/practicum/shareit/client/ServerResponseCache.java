@@ -0,0 +1,83 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server responses that carry an ETag, kept so that {@link BaseClient} can revalidate them with
+ * {@code If-None-Match} instead of downloading the body again. Entries younger than the configured max-age are
+ * served without contacting the server at all, unless a write has gone through this gateway since they were
+ * requested. Hit and eviction counters are published as {@code cache.*} with {@code cache=shareit-server-responses}.
+ */
+@Component
+public class ServerResponseCache {
+
+    private final Cache<String, Entry> cache;
+    private final long maxAgeNanos;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ServerResponseCache(ServerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, Entry entry) ->
+                        key.length() + Objects.requireNonNull(entry.getResponse().getBody()).length)
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.maxAgeNanos = properties.getMaxAge().toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server-responses");
+    }
+
+    /**
+     * Current write generation; pass the value read before a request to {@link #put} so that a response that raced
+     * with a write is never served as fresh.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    @Nullable
+    public ResponseEntity<byte[]> get(String key) {
+        Entry entry = cache.getIfPresent(key);
+        return entry != null ? entry.getResponse() : null;
+    }
+
+    @Nullable
+    public ResponseEntity<byte[]> getFresh(String key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || entry.getGeneration() != generation.get()
+                || System.nanoTime() - entry.getStoredAt() >= maxAgeNanos) {
+            return null;
+        }
+        return entry.getResponse();
+    }
+
+    public void put(String key, ResponseEntity<byte[]> response, long generation) {
+        cache.put(key, new Entry(response, System.nanoTime(), generation));
+    }
+
+    /**
+     * Makes every entry revalidate on its next read, called after each write sent to the server.
+     */
+    public void markStale() {
+        generation.incrementAndGet();
+    }
+
+    @Value
+    private static class Entry {
+        ResponseEntity<byte[]> response;
+        long storedAt;
+        long generation;
+    }
+
+}
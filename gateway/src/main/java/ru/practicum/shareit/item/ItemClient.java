@@ -1,47 +1,64 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.item.dto.BatchItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final byte[] EMPTY_LIST = "[]".getBytes(StandardCharsets.UTF_8);
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+            MeterRegistry meterRegistry, ServerResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long itemId, ItemDto itemDto, Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItems(Long userId, BatchItemDto batchItemDto) {
+        return post("/batch", userId, batchItemDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(Long itemId, ItemDto itemDto, Long userId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
 
-    public ResponseEntity<Object> getItem(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(Long itemId, Long userId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByUser(Long userId, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUser(Long userId, int from, int size, @Nullable String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "after", after
+            );
+            return get("/?size={size}&after={after}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -49,16 +66,32 @@ public class ItemClient extends BaseClient {
         return get("/?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getUsersAvailableItems(Long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsersAvailableItems(Long userId, String text, int from, int size) {
+        if (text.isBlank()) {
+            return Mono.just(jsonResponse(EMPTY_LIST));
+        }
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getCachedForAnyUser("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(Long itemId, Long userId,
+            @Nullable LocalDateTime start, Duration duration, int count) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("duration", duration);
+        parameters.put("count", count);
+        if (start != null) {
+            parameters.put("start", start);
+            return get("/" + itemId + "/availability?start={start}&duration={duration}&count={count}",
+                    userId, parameters);
+        }
+        return get("/" + itemId + "/availability?duration={duration}&count={count}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long itemId, CommentDto commentDto, Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(Long itemId, CommentDto commentDto, Long userId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,13 +15,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.BatchItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
-import java.util.Collections;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
 @Slf4j
 @Validated
@@ -31,14 +37,21 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestBody @Valid ItemDto itemDto,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@RequestBody @Valid ItemDto itemDto,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("POST /items : user ID {} creates item from DTO - {}", userId, itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItems(@RequestBody @Valid BatchItemDto batchItemDto,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /items/batch : user ID {} creates {} items", userId, batchItemDto.getItems().size());
+        return itemClient.createItems(userId, batchItemDto);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable("itemId") Long itemId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@PathVariable("itemId") Long itemId,
                                              @RequestBody ItemDto itemDto,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("PATCH /items/{} : update item by ID from user ID {}, item DTO - {}", itemId, userId, itemDto);
@@ -46,38 +59,48 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable("itemId") Long itemId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(@PathVariable("itemId") Long itemId,
                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /items/{} : get item by ID from user ID {}", itemId, userId);
         return itemClient.getItem(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByUser(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
-        log.info("GET /items?from={}&size={} : get list of items from user ID {}", from, size, userId);
-        return itemClient.getItemsByUser(userId, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /items?from={}&size={}&after={} : get list of items from user ID {}", from, size, after, userId);
+        return itemClient.getItemsByUser(userId, from, size, after);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getUsersAvailableItems(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsersAvailableItems(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam String text,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
             @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
         log.info("GET /items/search?text={}&from={}&size={} : get list of available items of user ID {} with text",
                 text, from, size, userId);
-        if (text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
-        } else {
-            return itemClient.getUsersAvailableItems(userId, text, from, size);
-        }
+        return itemClient.getUsersAvailableItems(userId, text, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "duration", defaultValue = "PT1H") Duration duration,
+            @Positive @RequestParam(value = "count", defaultValue = "5") int count) {
+        log.info("GET /items/{}/availability?start={}&duration={}&count={} : get free windows for user ID {}",
+                itemId, start, duration, count, userId);
+        return itemClient.getItemAvailability(itemId, userId, start, duration, count);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@PathVariable Long itemId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(@PathVariable Long itemId,
                                                 @Valid @RequestBody CommentDto commentDto,
                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("POST /items/{}/comment : user ID {} creates comment - {}", itemId, userId, commentDto);
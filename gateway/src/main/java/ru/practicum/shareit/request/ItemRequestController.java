@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import javax.validation.Valid;
@@ -28,20 +31,20 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @Valid @RequestBody ItemRequestDto itemRequestDto) {
         log.info("POST /requests : user ID {} creates itemRequest from DTO - {}", userId, itemRequestDto);
         return itemRequestClient.createItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsersItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /requests : get list of itemRequests by user ID {}", userId);
         return itemRequestClient.getUsersItemRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getItemRequests(
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequests(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
             @Positive @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
@@ -50,7 +53,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@PathVariable("requestId") Long requestId,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemRequest(@PathVariable("requestId") Long requestId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("GET /requests/{} : get itemRequest by ID, user ID {}", requestId, userId);
         return itemRequestClient.getItemRequest(userId, requestId);
@@ -1,47 +1,68 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+            MeterRegistry meterRegistry, ServerResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(UserDto userDto, Long userId) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(Long userId) {
+        return getCached("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers(int from, int size, @Nullable String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "size", size,
+                    "after", after
+            );
+            return get("?size={size}&after={after}", null, parameters);
+        }
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public Flux<DataBuffer> streamAllUsers(MediaType mediaType) {
+        return webClient.get()
+                .accept(mediaType)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
     }
 
-    public void deleteUser(Long userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(Long userId) {
+        return delete("/" + userId);
     }
 
 }
\ No newline at end of file
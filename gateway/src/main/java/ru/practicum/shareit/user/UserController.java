@@ -2,20 +2,31 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/users")
 @RequiredArgsConstructor
@@ -24,36 +35,49 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(@RequestBody @Valid UserDto userDto) {
         log.info("POST /users : create user from DTO - {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable("id") Long id,
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@PathVariable("id") Long id,
                                              @RequestBody UserDto userDto) {
         log.info("PATCH /users/{} : update user by ID from DTO - {}", id, userDto);
         return userClient.updateUser(userDto, id);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUser(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(@PathVariable("id") Long id) {
         log.info("GET /users/{} : get user by ID", id);
         return userClient.getUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.info("GET /users : get list of all users");
-        return userClient.getAllUsers();
+    public ResponseEntity<Flux<DataBuffer>> getAllUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType mediaType = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        log.info("GET /users : stream all users as {}", mediaType);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(userClient.streamAllUsers(mediaType));
+    }
+
+    @GetMapping(params = "size")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers(
+            @PositiveOrZero @RequestParam(value = "from", defaultValue = "0", required = false) int from,
+            @Positive @RequestParam(value = "size") int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /users?from={}&size={}&after={} : get page of users", from, size, after);
+        return userClient.getAllUsers(from, size, after);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable Long id) {
         log.info("DELETE /users/{} : delete user by ID", id);
-        userClient.deleteUser(id);
-        return ResponseEntity.ok().build();
-
+        return userClient.deleteUser(id);
     }
 
 }
\ No newline at end of file
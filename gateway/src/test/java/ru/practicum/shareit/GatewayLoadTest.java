@@ -0,0 +1,116 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gateway throughput against a slow server with two event loop threads. Every request reads a different booking,
+ * so none of them are merged and each holds its own in-flight server call.
+ * Run with {@code mvn test -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GatewayLoadTest {
+
+    private static final int THREADS = 2;
+    private static final int REQUESTS = 200;
+    private static final long SERVER_LATENCY_MILLIS = 200;
+
+    private static final HttpServer SERVER = startServer();
+
+    @LocalServerPort
+    private int port;
+
+    static {
+        System.setProperty("reactor.netty.ioWorkerCount", String.valueOf(THREADS));
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void getBooking_concurrentRequestsExceedThreadCount() {
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(
+                        HttpClient.create(ConnectionProvider.newConnection())))
+                .build();
+
+        send(client);
+        long start = System.nanoTime();
+        Long ok = send(client);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        long blockingMillis = REQUESTS * SERVER_LATENCY_MILLIS / THREADS;
+        log.info("gateway: {} requests on {} threads in {} ms ({} req/s), thread-per-request bound {} ms",
+                REQUESTS, THREADS, elapsedMillis, REQUESTS * 1000 / elapsedMillis, blockingMillis);
+
+        assertEquals(REQUESTS, ok);
+        assertTrue(elapsedMillis * 4 < blockingMillis,
+                "Gateway must not hold a thread per in-flight server call");
+    }
+
+    private static Long send(WebClient client) {
+        return Flux.range(0, REQUESTS)
+                .flatMap(i -> client.get().uri("/bookings/{bookingId}", i + 1)
+                        .header("X-Sharer-User-Id", "1")
+                        .retrieve()
+                        .toBodilessEntity(), REQUESTS)
+                .filter(response -> response.getStatusCode().is2xxSuccessful())
+                .count()
+                .block(Duration.ofMinutes(1));
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+            server.setExecutor(Executors.newFixedThreadPool(REQUESTS));
+            server.createContext("/bookings", exchange -> {
+                try {
+                    Thread.sleep(SERVER_LATENCY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"id\":1,\"status\":\"WAITING\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
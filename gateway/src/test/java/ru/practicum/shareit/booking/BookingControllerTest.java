@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BulkBookingDecisionDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = BookingController.class)
+class BookingControllerTest {
+
+    @MockBean
+    BookingClient bookingClient;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void confirmationBookings_forwardsDecisions() {
+        String results = "[{\"bookingId\":1,\"status\":\"APPROVED\",\"error\":null}]";
+        when(bookingClient.confirmationBookings(anyLong(), any())).thenReturn(json(results));
+
+        webTestClient.patch().uri("/bookings/bulk")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"decisions\":[{\"bookingId\":1,\"approved\":true}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json(results);
+
+        verify(bookingClient).confirmationBookings(1L,
+                new BulkBookingDecisionDto(List.of(new BookingDecisionDto(1L, true))));
+    }
+
+    @Test
+    void confirmationBookings_invalidDecisions_badRequest() {
+        webTestClient.patch().uri("/bookings/bulk")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"decisions\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.patch().uri("/bookings/bulk")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"decisions\":[{\"bookingId\":1}]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> json(String body) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(Flux.just(buffer)));
+    }
+
+}
@@ -0,0 +1,248 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+class BaseClientTest {
+
+    private static final String USER = "{ \"id\" : 1,  \"name\" : \"User\", \"email\" : \"user@mail.ru\" }";
+    private static final String ERROR = "{\"error\":\"User with ID 2 does not exist\"}";
+    private static final String ITEM = "{\"id\":1,\"name\":\"Item\"}";
+    private static final AtomicInteger ITEM_CALLS = new AtomicInteger();
+    private static final AtomicInteger ITEM_LIST_CALLS = new AtomicInteger();
+    private static final AtomicInteger SEARCH_CALLS = new AtomicInteger();
+    private static final List<String> REVALIDATIONS = new CopyOnWriteArrayList<>();
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void getUser_passesBodyAndHeadersThrough() {
+        byte[] body = webTestClient.get().uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("X-Next-Cursor", "abc")
+                .expectBody().returnResult().getResponseBody();
+
+        assertEquals(USER, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getUser_passesErrorBodyThrough() {
+        byte[] body = webTestClient.get().uri("/users/2")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().returnResult().getResponseBody();
+
+        assertEquals(ERROR, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getUsersAvailableItems_blankText_emptyList() {
+        webTestClient.get().uri("/items/search?text= ")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void getItem_concurrentIdenticalCalls_shareOneUpstreamRequest() {
+        double merged = mergedItemGets();
+        List<String> bodies = Flux.range(0, 10)
+                .flatMap(i -> itemClient.getItem(1L, 1L))
+                .flatMap(response -> DataBufferUtils.join(response.getBody()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(10, bodies.size());
+        assertTrue(bodies.stream().allMatch(ITEM::equals));
+        assertEquals(1, ITEM_CALLS.get());
+        assertEquals(9, mergedItemGets() - merged);
+
+        itemClient.getItem(1L, 2L).block(Duration.ofSeconds(5));
+        assertEquals(2, ITEM_CALLS.get());
+    }
+
+    @Test
+    void getUsersAvailableItems_sameSearchFromDifferentUsers_sharesOneUpstreamRequest() {
+        List<String> bodies = Flux.range(1, 6)
+                .flatMap(userId -> itemClient.getUsersAvailableItems((long) userId, "drill", 0, 10))
+                .flatMap(response -> DataBufferUtils.join(response.getBody()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(6, bodies.size());
+        assertTrue(bodies.stream().allMatch("[]"::equals));
+        assertEquals(1, SEARCH_CALLS.get());
+    }
+
+    @Test
+    void getItemsByUser_concurrentIdenticalCalls_streamedSeparately() {
+        List<String> bodies = Flux.range(0, 3)
+                .flatMap(i -> itemClient.getItemsByUser(1L, 0, 10, null))
+                .flatMap(response -> DataBufferUtils.join(response.getBody()))
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("[]", "[]", "[]"), bodies);
+        assertEquals(3, ITEM_LIST_CALLS.get());
+    }
+
+    @Test
+    void getItem_servesFreshCopyAndRevalidatesAfterWrite() {
+        webTestClient.get().uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
+                .expectBody().json(ITEM);
+
+        webTestClient.get().uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        assertEquals(Arrays.asList((String) null), REVALIDATIONS);
+
+        webTestClient.patch().uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Item\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/items/2")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json(ITEM);
+
+        assertEquals(Arrays.asList(null, "\"v1\""), REVALIDATIONS);
+    }
+
+    private double mergedItemGets() {
+        return meterRegistry.get("shareit.gateway.get.requests")
+                .tag("client", "ItemClient")
+                .tag("result", "merged")
+                .counter().count();
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/users/1", exchange -> {
+                exchange.getResponseHeaders().add("X-Next-Cursor", "abc");
+                send(exchange, 200, USER);
+            });
+            server.createContext("/users/2", exchange -> send(exchange, 404, ERROR));
+            server.createContext("/items/1", exchange -> {
+                ITEM_CALLS.incrementAndGet();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, 200, ITEM);
+            });
+            server.createContext("/items/2", exchange -> {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    send(exchange, 200, ITEM);
+                    return;
+                }
+                String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+                REVALIDATIONS.add(ifNoneMatch);
+                exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"v1\"");
+                if ("\"v1\"".equals(ifNoneMatch)) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                } else {
+                    send(exchange, 200, ITEM);
+                }
+            });
+            server.createContext("/items/", exchange -> {
+                ITEM_LIST_CALLS.incrementAndGet();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, 200, "[]");
+            });
+            server.createContext("/items/search", exchange -> {
+                SEARCH_CALLS.incrementAndGet();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, 200, "[]");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
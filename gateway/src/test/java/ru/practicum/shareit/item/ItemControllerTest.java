@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = ItemController.class)
+class ItemControllerTest {
+
+    @MockBean
+    ItemClient itemClient;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void getItemAvailability_forwardsQuery() {
+        when(itemClient.getItemAvailability(anyLong(), anyLong(), any(), any(), anyInt()))
+                .thenReturn(json("{\"itemId\":3}"));
+
+        webTestClient.get().uri("/items/3/availability?start=2030-01-01T10:00:00&duration=PT2H")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("{\"itemId\":3}");
+
+        verify(itemClient).getItemAvailability(3L, 1L, LocalDateTime.of(2030, 1, 1, 10, 0), Duration.ofHours(2), 5);
+    }
+
+    @Test
+    void createItems_forwardsBatch() {
+        when(itemClient.createItems(anyLong(), any())).thenReturn(json("[{\"id\":1,\"name\":\"drill\"}]"));
+
+        webTestClient.post().uri("/items/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"name\":\"drill\",\"description\":\"d\",\"available\":true}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"id\":1,\"name\":\"drill\"}]");
+
+        verify(itemClient).createItems(eq(1L), any());
+    }
+
+    @Test
+    void createItems_invalidItem_badRequest() {
+        webTestClient.post().uri("/items/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[{\"name\":\"drill\",\"description\":\"d\",\"available\":true},"
+                        + "{\"name\":\" \",\"description\":\"d\",\"available\":true}]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.post().uri("/items/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"items\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(itemClient);
+    }
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> json(String body) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(Flux.just(buffer)));
+    }
+
+}
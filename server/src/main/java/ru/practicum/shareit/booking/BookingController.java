@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,8 +14,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BulkBookingDecisionDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -44,6 +48,14 @@ public class BookingController {
         return bookingService.confirmationBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingDecisionResultDto> confirmationBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody BulkBookingDecisionDto bulkDecisionDto) {
+        log.info("PATCH /bookings/bulk : update statuses of bookings - {}, user ID {}", bulkDecisionDto, userId);
+        return bookingService.confirmationBookings(userId, bulkDecisionDto.getDecisions());
+    }
+
     @GetMapping("/{bookingId}")
     public AnswerBookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                        @PathVariable Long bookingId) {
@@ -52,25 +64,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<AnswerBookingDto> getAllBookingByUser(
+    public ResponseEntity<List<AnswerBookingDto>> getAllBookingByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
-        log.info("GET /bookings?state={}&from={}&size={} : get list of bookings by user ID {} with state",
-                state, from, size, userId);
-        return bookingService.getAllBookingByUser(userId, state, PageRequest.of(from / size, size));
+            @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /bookings?state={}&from={}&size={}&after={} : get list of bookings by user ID {} with state",
+                state, from, size, after, userId);
+        List<AnswerBookingDto> bookings = after == null
+                ? bookingService.getAllBookingByUser(userId, state, PageRequest.of(from / size, size))
+                : bookingService.getAllBookingByUser(userId, state, PageCursor.decode(after), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<AnswerBookingDto> getAllBookingByOwner(
+    public ResponseEntity<List<AnswerBookingDto>> getAllBookingByOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", defaultValue = "ALL", required = false) String state,
             @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
-        log.info("GET /bookings/owner?state={}&from={}&size={} : get list of bookings by owner ID {} with state",
-                state, from, size, userId);
-        return bookingService.getAllBookingByOwner(userId, state, PageRequest.of(from / size, size));
+            @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.info("GET /bookings/owner?state={}&from={}&size={}&after={} : "
+                        + "get list of bookings by owner ID {} with state", state, from, size, after, userId);
+        List<AnswerBookingDto> bookings = after == null
+                ? bookingService.getAllBookingByOwner(userId, state, PageRequest.of(from / size, size))
+                : bookingService.getAllBookingByOwner(userId, state, PageCursor.decode(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    private static ResponseEntity<List<AnswerBookingDto>> withNextCursor(List<AnswerBookingDto> bookings, int size) {
+        if (bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        AnswerBookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(PageCursor.HEADER, PageCursor.of(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,317 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-item busy time of WAITING and APPROVED bookings, kept in memory so availability checks rarely reach
+ * the database. An item is loaded on first use with its bookings that have not ended yet; later changes
+ * arrive through {@link #onBookingSaved} after commit. Each item holds an immutable snapshot of sorted
+ * {@code long[]} arrays (epoch microseconds, UTC) that is replaced on every change, so readers need no locks.
+ * <p>
+ * The index is per node: bookings changed by another server instance are not seen until the item's snapshot
+ * expires, {@code shareit.availability.ttl} after it was loaded. A free answer can therefore be trusted only as far
+ * as the exclusion constraint on {@code bookings}, which stays the final guard against overlaps, and a busy answer
+ * must be confirmed after {@link #invalidate} before refusing a booking. At most
+ * {@code shareit.availability.max-items} items are kept.
+ */
+@Component
+public class AvailabilityIndex {
+
+    public static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private static final int STAMPS = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final Cache<Long, ItemBookings> items;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMPS);
+
+    public AvailabilityIndex(BookingRepository bookingRepository, PlatformTransactionManager transactionManager,
+                             @Value("${shareit.availability.max-items:10000}") long maxItems,
+                             @Value("${shareit.availability.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.items = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfter(new Expiry<Long, ItemBookings>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, ItemBookings bookings, long currentTime) {
+                        return ttl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long itemId, ItemBookings bookings, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, ItemBookings bookings, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Whether no active booking of the item intersects {@code [start, end)}.
+     */
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookings(itemId).isFree(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Up to {@code count} gaps of at least {@code length} starting no earlier than {@code from}, in time order.
+     * The last gap of a schedule is open-ended and has a {@code null} end.
+     */
+    public List<FreeWindowDto> freeWindows(Long itemId, LocalDateTime from, Duration length, int count) {
+        return bookings(itemId).freeWindows(toMicros(from), length.toNanos() / 1000, count);
+    }
+
+    public void onBookingSaved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        boolean active = ACTIVE_STATUSES.contains(booking.getStatus());
+        long start = toMicros(booking.getStart());
+        long end = toMicros(booking.getEnd());
+        Runnable apply = () -> {
+            stamps.incrementAndGet(stamp(itemId));
+            items.asMap().computeIfPresent(itemId, (id, current) -> active
+                    ? current.with(bookingId, start, end, now())
+                    : current.without(bookingId));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Drops the item so its bookings are reloaded on next use, e.g. after the database rejected an overlap
+     * this index did not know about.
+     */
+    public void invalidate(Long itemId) {
+        stamps.incrementAndGet(stamp(itemId));
+        items.invalidate(itemId);
+    }
+
+    /**
+     * The query runs outside the cache so it never blocks other items. Every change bumps the item's stamp before
+     * it is applied; a snapshot whose stamp moved while it was loading may have missed that change, so it is used
+     * for this call only and not cached.
+     */
+    private ItemBookings bookings(Long itemId) {
+        ItemBookings cached = items.getIfPresent(itemId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = stamps.get(stamp(itemId));
+        ItemBookings loaded = load(itemId);
+        if (stamps.get(stamp(itemId)) != stamp) {
+            return loaded;
+        }
+        ItemBookings raced = items.asMap().putIfAbsent(itemId, loaded);
+        return raced == null ? loaded : raced;
+    }
+
+    /**
+     * Snapshots live for minutes, so they are read from the primary: inside a read-only transaction, which may be
+     * routed to a lagging replica, the query runs in a new read-write transaction.
+     */
+    private ItemBookings load(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<InfoBookingDto> bookings = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? bookingRepository.findActiveBookings(itemId, ACTIVE_STATUSES, now)
+                : primaryTransaction.execute(status ->
+                        bookingRepository.findActiveBookings(itemId, ACTIVE_STATUSES, now));
+        long[] ids = new long[bookings.size()];
+        long[] starts = new long[bookings.size()];
+        long[] ends = new long[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            ids[i] = bookings.get(i).getId();
+            starts[i] = toMicros(bookings.get(i).getStart());
+            ends[i] = toMicros(bookings.get(i).getEnd());
+        }
+        return new ItemBookings(ids, starts, ends);
+    }
+
+    private static int stamp(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ hash >>> 16) & (STAMPS - 1);
+    }
+
+    private static long now() {
+        return toMicros(LocalDateTime.now());
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Bookings of one item sorted by start, plus their union as disjoint busy blocks sorted by start;
+     * block ends are then sorted too, which makes both queries a binary search.
+     */
+    private static final class ItemBookings {
+
+        private final long[] ids;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] busyStarts;
+        private final long[] busyEnds;
+
+        private ItemBookings(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            long[] mergedStarts = new long[ids.length];
+            long[] mergedEnds = new long[ids.length];
+            int blocks = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (blocks > 0 && starts[i] <= mergedEnds[blocks - 1]) {
+                    mergedEnds[blocks - 1] = Math.max(mergedEnds[blocks - 1], ends[i]);
+                } else {
+                    mergedStarts[blocks] = starts[i];
+                    mergedEnds[blocks] = ends[i];
+                    blocks++;
+                }
+            }
+            this.busyStarts = Arrays.copyOf(mergedStarts, blocks);
+            this.busyEnds = Arrays.copyOf(mergedEnds, blocks);
+        }
+
+        boolean isFree(long start, long end) {
+            int block = lastStartBefore(end);
+            return block < 0 || busyEnds[block] <= start;
+        }
+
+        List<FreeWindowDto> freeWindows(long from, long length, int count) {
+            List<FreeWindowDto> windows = new ArrayList<>();
+            int block = firstEndAfter(from);
+            long cursor = from;
+            while (block < busyStarts.length && windows.size() < count) {
+                if (busyStarts[block] - cursor >= length) {
+                    windows.add(new FreeWindowDto(fromMicros(cursor), fromMicros(busyStarts[block])));
+                }
+                cursor = Math.max(cursor, busyEnds[block]);
+                block++;
+            }
+            if (windows.size() < count) {
+                windows.add(new FreeWindowDto(fromMicros(cursor), null));
+            }
+            return windows;
+        }
+
+        /**
+         * Copy with the booking added or moved; bookings that have already ended are dropped on the way.
+         */
+        ItemBookings with(long id, long start, long end, long now) {
+            ItemBookings remaining = without(id);
+            int size = remaining.ids.length;
+            long[] newIds = new long[size + 1];
+            long[] newStarts = new long[size + 1];
+            long[] newEnds = new long[size + 1];
+            int kept = 0;
+            boolean inserted = false;
+            for (int i = 0; i <= size; i++) {
+                boolean takeNew = !inserted && (i == size || start < remaining.starts[i]);
+                if (takeNew) {
+                    newIds[kept] = id;
+                    newStarts[kept] = start;
+                    newEnds[kept] = end;
+                    kept++;
+                    inserted = true;
+                }
+                if (i < size && remaining.ends[i] > now) {
+                    newIds[kept] = remaining.ids[i];
+                    newStarts[kept] = remaining.starts[i];
+                    newEnds[kept] = remaining.ends[i];
+                    kept++;
+                }
+            }
+            return new ItemBookings(Arrays.copyOf(newIds, kept), Arrays.copyOf(newStarts, kept),
+                    Arrays.copyOf(newEnds, kept));
+        }
+
+        ItemBookings without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new ItemBookings(remove(ids, i), remove(starts, i), remove(ends, i));
+                }
+            }
+            return this;
+        }
+
+        private int lastStartBefore(long time) {
+            int low = 0;
+            int high = busyStarts.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (busyStarts[mid] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private int firstEndAfter(long time) {
+            int low = 0;
+            int high = busyEnds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (busyEnds[mid] > time) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private static long[] remove(long[] array, int index) {
+            long[] result = new long[array.length - 1];
+            System.arraycopy(array, 0, result, 0, index);
+            System.arraycopy(array, index + 1, result, index, array.length - index - 1);
+            return result;
+        }
+    }
+
+}
@@ -19,4 +19,13 @@ public class AnswerBookingDto {
     private ItemDto item;
     private UserDto booker;
     private Status status;
+
+    /**
+     * Constructor expression target of the booking listing queries; mirrors {@code EntityMapper.toAnswerBookingDto}.
+     */
+    public AnswerBookingDto(Long id, LocalDateTime start, LocalDateTime end, Long itemId, String itemName,
+                            Long bookerId, Status status) {
+        this(id, start, end, ItemDto.builder().id(itemId).name(itemName).build(),
+                UserDto.builder().id(bookerId).build(), status);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of locks that booking writes take by item id. Writes to the same item run one at a time within this
+ * instance, while writes to other items land on other stripes and do not wait for each other. The number of
+ * stripes is rounded up to a power of two; item ids are sequential, so neighbouring items never share a stripe.
+ */
+@Component
+public class ItemLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public ItemLocks(@Value("${shareit.booking.lock-stripes:64}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Lock stripes must be positive: " + stripes);
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(itemId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action holding the locks of all given items. Stripes are taken in index order, so two writes over
+     * overlapping sets of items cannot deadlock.
+     */
+    public <T> T withLocks(Collection<Long> itemIds, Supplier<T> action) {
+        int[] indexes = itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    int stripe(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    int size() {
+        return stripes.length;
+    }
+
+}
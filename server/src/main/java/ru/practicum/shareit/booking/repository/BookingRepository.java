@@ -1,51 +1,62 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    List<Booking> findAllByBooker_IdOrderByStartDesc(Long userId, Pageable pageable);
+    @Override
+    @EntityGraph("Booking.item")
+    Optional<Booking> findById(Long bookingId);
 
-    List<Booking> findAllByBooker_IdAndStartIsAfter(Long userId, LocalDateTime start, Sort sort);
-
-    List<Booking> findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(
-            Long userId, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    List<Booking> findAllByBooker_IdAndEndIsBefore(Long userId, LocalDateTime start, Sort sort);
-
-    List<Booking> findAllByBooker_IdAndStatus(Long userId, Status status);
-
-    List<Booking> findAllByItem_Owner_IdOrderByStartDesc(Long userId, Pageable pageable);
-
-    List<Booking> findAllByItem_Owner_IdAndStartIsAfter(Long userId, LocalDateTime start, Sort sort);
-
-    List<Booking> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-            Long userId, LocalDateTime start, LocalDateTime end, Sort sort);
-
-    List<Booking> findAllByItem_Owner_IdAndEndIsBefore(Long userId, LocalDateTime start, Sort sort);
-
-    List<Booking> findAllByItem_Owner_IdAndStatus(Long userId, Status status);
+    @EntityGraph("Booking.item")
+    List<Booking> findAllByIdIn(Collection<Long> bookingIds);
 
     Booking findFirstByItem_IdAndItem_Owner_IdAndStartIsBefore(
             Long itemId, Long userId, LocalDateTime now, Sort sort);
 
-    List<Booking> findFirstByItem_IdInAndItem_Owner_IdAndStartIsBefore(
-            List<Long> itemsId, Long userId, LocalDateTime now, Sort sort);
-
     Booking findFirstByItem_IdAndItem_Owner_IdAndStartIsAfterAndStatusIsNotAndStatusIsNot(
             Long itemId, Long userId, LocalDateTime start, Status status1, Status status2, Sort sort);
 
-    List<Booking> findFirstByItem_IdInAndItem_Owner_IdAndStartIsAfterAndStatusIsNotAndStatusIsNot(
-            List<Long> itemsId, Long userId, LocalDateTime start, Status status1, Status status2, Sort sort);
+    @Query(value = "SELECT id, start_date, end_date, item_id, booker_id, status, version " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn " +
+            "      FROM bookings b " +
+            "      JOIN items i ON i.id = b.item_id " +
+            "      WHERE b.item_id IN (:itemsId) " +
+            "      AND i.owner_id = :userId " +
+            "      AND b.start_date < :now) AS last_bookings " +
+            "WHERE rn = 1 " +
+            "UNION ALL " +
+            "SELECT id, start_date, end_date, item_id, booker_id, status, version " +
+            "FROM (SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn " +
+            "      FROM bookings b " +
+            "      JOIN items i ON i.id = b.item_id " +
+            "      WHERE b.item_id IN (:itemsId) " +
+            "      AND i.owner_id = :userId " +
+            "      AND b.start_date > :now " +
+            "      AND b.status NOT IN ('CANCELED', 'REJECTED')) AS next_bookings " +
+            "WHERE rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextBookings(@Param("itemsId") List<Long> itemsId,
+                                          @Param("userId") Long userId,
+                                          @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.id IN :bookingIds")
+    List<Long> findItemIdsByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 
     @Query("SELECT (COUNT(b) > 0) " +
             "FROM Booking b " +
@@ -56,4 +67,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                 @Param("userId") Long userId,
                                 @Param("now") LocalDateTime now);
 
-}
\ No newline at end of file
+    @Query("SELECT new ru.practicum.shareit.booking.dto.InfoBookingDto(b.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.end > :now " +
+            "ORDER BY b.start")
+    List<InfoBookingDto> findActiveBookings(@Param("itemId") Long itemId,
+                                            @Param("statuses") Collection<Status> statuses,
+                                            @Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking listings projected straight into {@link AnswerBookingDto}, ordered by {@code start DESC, id DESC}.
+ * Only booking, item id/name and booker id columns are selected and no entities enter the persistence context.
+ */
+public interface BookingRepositoryCustom {
+
+    List<AnswerBookingDto> findAnswerBookings(Long userId, boolean byOwner, State state, LocalDateTime now,
+                                              Pageable pageable);
+
+    /**
+     * Keyset page; a {@code null} afterStart returns the first page.
+     */
+    List<AnswerBookingDto> findAnswerBookingsAfter(Long userId, boolean byOwner, State state, LocalDateTime now,
+                                                   LocalDateTime afterStart, Long afterId, int size);
+
+}
@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -12,10 +15,16 @@ public interface BookingService {
 
     AnswerBookingDto confirmationBooking(Long userId, Long bookingId, Boolean approved);
 
+    List<BookingDecisionResultDto> confirmationBookings(Long userId, List<BookingDecisionDto> decisions);
+
     AnswerBookingDto getBooking(Long userId, Long bookingId);
 
     List<AnswerBookingDto> getAllBookingByUser(Long userId, String state, Pageable pageable);
 
     List<AnswerBookingDto> getAllBookingByOwner(Long userId, String state, Pageable pageable);
 
+    List<AnswerBookingDto> getAllBookingByUser(Long userId, String state, PageCursor after, int size);
+
+    List<AnswerBookingDto> getAllBookingByOwner(Long userId, String state, PageCursor after, int size);
+
 }
\ No newline at end of file
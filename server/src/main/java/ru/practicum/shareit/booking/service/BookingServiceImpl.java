@@ -2,15 +2,23 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.lock.ItemLocks;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.EntityNotAvailable;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.ServerError;
@@ -18,13 +26,19 @@ import ru.practicum.shareit.exceptions.UnsupportedState;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.EntityMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -32,16 +46,30 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
-    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start");
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int CONFIRMATION_ATTEMPTS = 3;
+    private static final int MAX_BULK_DECISIONS = 100;
 
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final EntityMapper mapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final ItemLocks itemLocks;
+    private final TransactionTemplate transactionTemplate;
 
 
+    /**
+     * Bookings of one item are created and confirmed under that item's lock, around the whole transaction, so the
+     * availability check and the insert cannot interleave with another write to the same item on this instance.
+     */
     @Override
     public AnswerBookingDto createBooking(Long userId, BookingDto bookingDto) {
+        return itemLocks.withLock(bookingDto.getItemId(),
+                () -> transactionTemplate.execute(status -> doCreateBooking(userId, bookingDto)));
+    }
+
+    private AnswerBookingDto doCreateBooking(Long userId, BookingDto bookingDto) {
         Long itemId = bookingDto.getItemId();
         Item item = itemRepository.findById(bookingDto.getItemId())
                 .orElseThrow(() -> new EntityNotFoundException("Item with ID " + itemId + " does not exist"));
@@ -54,15 +82,68 @@ public class BookingServiceImpl implements BookingService {
         if (booker.getId().equals(item.getOwner().getId())) {
             throw new EntityNotFoundException("User with ID " + userId + " trying to book his/her own item");
         }
+        if (!availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())) {
+            // the snapshot can miss bookings rejected or moved on another instance, so only a fresh load may refuse
+            availabilityIndex.invalidate(itemId);
+            if (!availabilityIndex.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd())) {
+                throw new ConflictException("Item with ID " + itemId + " is already booked for this period");
+            }
+        }
         Booking booking = mapper.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(booker);
         booking.setStatus(Status.WAITING);
-        return mapper.toAnswerBookingDto(bookingRepository.save(booking));
+        try {
+            Booking saved = bookingRepository.save(booking);
+            // a concurrent booking of the same period is rejected by the exclusion constraint on flush
+            bookingRepository.flush();
+            availabilityIndex.onBookingSaved(saved);
+            return mapper.toAnswerBookingDto(saved);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlap(e)) {
+                availabilityIndex.invalidate(itemId);
+                throw new ConflictException("Item with ID " + itemId + " is already booked for this period");
+            }
+            throw e;
+        }
     }
 
+    /**
+     * The item lock orders confirmations on this instance; the booking version catches a concurrent change made by
+     * another instance, in which case the confirmation is re-read and re-checked.
+     */
     @Override
     public AnswerBookingDto confirmationBooking(Long userId, Long bookingId, Boolean approved) {
+        // read-write, so that the lookup goes to the primary and finds a booking created a moment ago
+        Long itemId = transactionTemplate.execute(status -> bookingRepository.findItemIdById(bookingId))
+                .orElseThrow(() -> new EntityNotFoundException("Booking with ID " + bookingId + " does not exist"));
+        return retryOnConcurrentChange("Booking with ID " + bookingId, () -> itemLocks.withLock(itemId,
+                () -> transactionTemplate.execute(status -> doConfirmationBooking(userId, bookingId, approved))));
+    }
+
+    /**
+     * Confirms many bookings of one owner at once. Bookings are loaded with their items in one query, every decision
+     * is checked against it, and the accepted ones are written by a single flush that JDBC batching turns into one
+     * batch of UPDATE statements. A decision that fails a check is reported in its result and does not stop others.
+     */
+    @Override
+    public List<BookingDecisionResultDto> confirmationBookings(Long userId, List<BookingDecisionDto> decisions) {
+        if (decisions == null || decisions.isEmpty() || decisions.size() > MAX_BULK_DECISIONS) {
+            throw new EntityNotAvailable("Bulk confirmation takes from 1 to " + MAX_BULK_DECISIONS + " decisions");
+        }
+        if (decisions.stream().anyMatch(decision -> decision == null || decision.getBookingId() == null)) {
+            throw new EntityNotAvailable("Every decision needs a booking ID");
+        }
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        // read-write, so that the lookup goes to the primary and locks the items of just-created bookings too
+        List<Long> itemIds = transactionTemplate.execute(status -> bookingRepository.findItemIdsByIdIn(bookingIds));
+        return retryOnConcurrentChange("Bookings " + bookingIds, () -> itemLocks.withLocks(itemIds,
+                () -> transactionTemplate.execute(status -> doConfirmationBookings(userId, decisions, bookingIds))));
+    }
+
+    private AnswerBookingDto doConfirmationBooking(Long userId, Long bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Booking with ID " + bookingId + " does not exist"));
         Item item = booking.getItem();
@@ -76,10 +157,73 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
         }
         booking = bookingRepository.save(booking);
+        // a change committed meanwhile by another instance fails the version check on flush
+        bookingRepository.flush();
+        availabilityIndex.onBookingSaved(booking);
         return mapper.toAnswerBookingDto(booking);
     }
 
+    private List<BookingDecisionResultDto> doConfirmationBookings(Long userId, List<BookingDecisionDto> decisions,
+                                                                  Set<Long> bookingIds) {
+        Map<Long, Booking> bookings = bookingRepository.findAllByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> decided = new HashSet<>();
+        List<Booking> changed = new ArrayList<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            Booking booking = bookings.get(bookingId);
+            String error = checkDecision(userId, decision, booking, decided);
+            if (error == null) {
+                booking.setStatus(decision.getApproved() ? Status.APPROVED : Status.REJECTED);
+                changed.add(booking);
+            }
+            boolean visible = booking != null && userId.equals(booking.getItem().getOwner().getId());
+            results.add(new BookingDecisionResultDto(bookingId, visible ? booking.getStatus() : null, error));
+        }
+        if (!changed.isEmpty()) {
+            bookingRepository.saveAll(changed);
+            bookingRepository.flush();
+            changed.forEach(availabilityIndex::onBookingSaved);
+        }
+        return results;
+    }
+
+    private static String checkDecision(Long userId, BookingDecisionDto decision, Booking booking, Set<Long> decided) {
+        Long bookingId = decision.getBookingId();
+        if (booking == null) {
+            return "Booking with ID " + bookingId + " does not exist";
+        }
+        if (!userId.equals(booking.getItem().getOwner().getId())) {
+            return "User ID " + userId + " does not own item in booking ID " + bookingId;
+        }
+        if (!decided.add(bookingId)) {
+            return "Booking with ID " + bookingId + " is listed more than once";
+        }
+        if (decision.getApproved() == null) {
+            return "Decision for booking ID " + bookingId + " is missing";
+        }
+        if (booking.getStatus().equals(Status.APPROVED) || booking.getStatus().equals(Status.REJECTED)) {
+            return "Booking status already confirmed: " + booking.getStatus();
+        }
+        return null;
+    }
+
+    private <T> T retryOnConcurrentChange(String target, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == CONFIRMATION_ATTEMPTS) {
+                    throw new ConflictException(target + " was changed concurrently");
+                }
+                log.debug("{} was changed concurrently, attempt {} of {}", target, attempt, CONFIRMATION_ATTEMPTS);
+            }
+        }
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public AnswerBookingDto getBooking(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException("Booking with ID " + bookingId + " does not exist"));
@@ -91,73 +235,60 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnswerBookingDto> getAllBookingByUser(Long userId, String rawState, Pageable pageable) {
+        return getAllBooking(userId, false, rawState, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AnswerBookingDto> getAllBookingByOwner(Long userId, String rawState, Pageable pageable) {
+        return getAllBooking(userId, true, rawState, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AnswerBookingDto> getAllBookingByUser(Long userId, String rawState, PageCursor after, int size) {
+        return getAllBookingAfter(userId, false, rawState, after, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AnswerBookingDto> getAllBookingByOwner(Long userId, String rawState, PageCursor after, int size) {
+        return getAllBookingAfter(userId, true, rawState, after, size);
+    }
+
+    private List<AnswerBookingDto> getAllBooking(Long userId, boolean byOwner, String rawState, Pageable pageable) {
         State state = getState(rawState);
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
         }
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByBooker_IdOrderByStartDesc(userId, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBooker_IdAndEndIsBefore(userId, LocalDateTime.now(), SORT);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBooker_IdAndStartIsAfter(userId, LocalDateTime.now(), SORT);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), SORT);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByBooker_IdAndStatus(userId, Status.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByBooker_IdAndStatus(userId, Status.REJECTED);
-                break;
-        }
-
-        return bookings.isEmpty() ? Collections.emptyList() : bookings.stream()
-                .map(mapper::toAnswerBookingDto)
-                .collect(Collectors.toList());
+        return bookingRepository.findAnswerBookings(userId, byOwner, state, LocalDateTime.now(), pageable);
     }
 
-    @Override
-    public List<AnswerBookingDto> getAllBookingByOwner(Long userId, String rawState, Pageable pageable) {
+    private List<AnswerBookingDto> getAllBookingAfter(Long userId, boolean byOwner, String rawState,
+                                                      PageCursor after, int size) {
         State state = getState(rawState);
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
         }
-        List<Booking> bookings = new ArrayList<>();
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByItem_Owner_IdOrderByStartDesc(userId, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(userId, LocalDateTime.now(), SORT);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(userId, LocalDateTime.now(), SORT);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), SORT);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, Status.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findAllByItem_Owner_IdAndStatus(userId, Status.REJECTED);
-                break;
-        }
-
-        return bookings.stream()
-                .map(mapper::toAnswerBookingDto)
-                .collect(Collectors.toList());
+        if (after != null && after.getStart() == null) {
+            throw new EntityNotAvailable("Invalid \"after\" cursor for bookings");
+        }
+        return bookingRepository.findAnswerBookingsAfter(
+                userId,
+                byOwner,
+                state,
+                LocalDateTime.now(),
+                after == null ? null : after.getStart(),
+                after == null ? null : after.getId(),
+                size);
     }
 
+    private static boolean isOverlap(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState());
+    }
 
     private State getState(String rawState) {
         State state;
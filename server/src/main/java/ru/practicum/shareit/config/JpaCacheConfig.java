@@ -0,0 +1,28 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class JpaCacheConfig {
+
+    /**
+     * Hands Hibernate a JCache manager owned by this application context. Hibernate closes the manager together
+     * with the session factory, so sharing the provider's default manager would break every other context in the
+     * same JVM (cached test contexts) once one of them shuts down. Region sizes come from {@code application.conf}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER,
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                        .getCacheManager(URI.create("shareit:" + UUID.randomUUID()), getClass().getClassLoader()));
+    }
+
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas used by {@link ReplicaRoutingDataSource}. Replicas share the credentials and pool settings
+ * of {@code spring.datasource}; with no replica URLs every statement goes to the primary.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.datasource")
+public class ReplicaProperties {
+
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /**
+     * Replicas further behind the primary than this are skipped until they catch up.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * Returns the replica lag in seconds; the default reports zero while all received WAL is replayed,
+     * so an idle replica does not look stale.
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Read-your-writes: after a user commits a write, their reads stay on the primary for this long.
+     */
+    private Duration stickiness = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of read-only transactions to a read replica and everything else to the primary.
+ * A replica is used only while its last measured lag is within {@code maxReplicaLag}, and a user who just
+ * committed a write keeps reading from the primary for {@code stickiness}. Must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, because the read-only flag
+ * of a transaction is known only after its connection has been requested.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaProperties properties;
+    private final Supplier<Long> currentUser;
+    private final Set<Integer> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaProperties properties,
+                                    Supplier<Long> currentUser) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.properties = properties;
+        this.currentUser = currentUser;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = properties.getLagCheckInterval().toMillis();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUser.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWrite(userId);
+            return PRIMARY;
+        }
+        if (userId != null && isSticky(userId)) {
+            return PRIMARY;
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int replica = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+            if (healthyReplicas.contains(replica)) {
+                return replica;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Measures every replica with {@code lagQuery}; unreachable replicas count as unhealthy.
+     */
+    void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            boolean healthy;
+            try (Connection connection = replicas.get(i).getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+                double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                healthy = Duration.ofMillis((long) (lagSeconds * 1000)).compareTo(properties.getMaxReplicaLag()) <= 0;
+            } catch (Exception e) {
+                log.warn("Replica {} lag check failed: {}", i, e.getMessage());
+                healthy = false;
+            }
+            if (healthy ? healthyReplicas.add(i) : healthyReplicas.remove(i)) {
+                log.info("Replica {} is now {}", i, healthy ? "in rotation" : "out of rotation");
+            }
+        }
+    }
+
+    private void recordWrite(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(userId, System.nanoTime());
+                }
+            });
+        } else {
+            lastWrites.put(userId, System.nanoTime());
+        }
+    }
+
+    private boolean isSticky(Long userId) {
+        Long lastWrite = lastWrites.get(userId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (System.nanoTime() - lastWrite < properties.getStickiness().toNanos()) {
+            return true;
+        }
+        lastWrites.remove(userId, lastWrite);
+        return false;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) {
+                ((AutoCloseable) replica).close();
+            }
+        }
+        if (primary instanceof AutoCloseable) {
+            ((AutoCloseable) primary).close();
+        }
+    }
+
+}
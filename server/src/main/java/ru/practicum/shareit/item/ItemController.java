@@ -3,6 +3,8 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,10 +16,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.exceptions.EntityNotAvailable;
 import ru.practicum.shareit.item.dto.AnswerItemDto;
+import ru.practicum.shareit.item.dto.BatchItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -36,6 +43,14 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDto> createItems(@RequestBody BatchItemDto batchItemDto,
+                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /items/batch : user ID {} creates {} items", userId,
+                batchItemDto.getItems() == null ? 0 : batchItemDto.getItems().size());
+        return itemService.createItems(userId, batchItemDto.getItems());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable("itemId") Long itemId,
                               @RequestBody ItemDto itemDto,
@@ -52,15 +67,24 @@ public class ItemController {
     }
 
     @GetMapping
-    public List<AnswerItemDto> getItemsByUser(
+    public ResponseEntity<List<AnswerItemDto>> getItemsByUser(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-            @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
+            @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+            @RequestParam(value = "after", required = false) String after) {
         if (from < 0 || size < 1) {
             throw new EntityNotAvailable("Invalid \"size\" or \"from\"");
         }
-        log.info("GET /items?from={}&size={} : get list of items from user ID {}", from, size, userId);
-        return itemService.getItemsByUser(userId, PageRequest.of(from / size, size));
+        log.info("GET /items?from={}&size={}&after={} : get list of items from user ID {}", from, size, after, userId);
+        List<AnswerItemDto> items = after == null
+                ? itemService.getItemsByUser(userId, PageRequest.of(from / size, size))
+                : itemService.getItemsByUser(userId, PageCursor.decode(after), size);
+        if (items.size() < size) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok()
+                .header(PageCursor.HEADER, PageCursor.of(items.get(items.size() - 1).getId()).encode())
+                .body(items);
     }
 
     @GetMapping("/search")
@@ -74,6 +98,22 @@ public class ItemController {
         return itemService.getAvailableItems(userId, text, PageRequest.of(from / size, size));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(value = "duration", defaultValue = "PT1H") Duration duration,
+            @RequestParam(value = "count", defaultValue = "5") int count) {
+        if (duration.isNegative() || duration.isZero() || count < 1) {
+            throw new EntityNotAvailable("Invalid \"duration\" or \"count\"");
+        }
+        log.info("GET /items/{}/availability?start={}&duration={}&count={} : get free windows for user ID {}",
+                itemId, start, duration, count, userId);
+        return itemService.getItemAvailability(itemId, start == null ? LocalDateTime.now() : start, duration, count);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@PathVariable Long itemId,
                                     @RequestBody CommentDto commentDto,
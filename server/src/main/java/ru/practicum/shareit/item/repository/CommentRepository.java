@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,8 +10,10 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph("Comment.author")
     List<Comment> findAllByItem_Id(Long itemId);
 
+    @EntityGraph("Comment.author")
     @Query("SELECT c " +
             "FROM Comment c " +
             "WHERE c.item.id IN :itemsId " +
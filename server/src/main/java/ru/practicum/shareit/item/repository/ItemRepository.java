@@ -1,24 +1,64 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @Override
+    @EntityGraph("Item.owner")
+    Optional<Item> findById(Long itemId);
+
+    @EntityGraph("Item.owner")
+    List<Item> findAllByIdIn(Collection<Long> itemsId);
+
+    @EntityGraph("Item.owner")
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findByOwner_IdOrderById(Long userId, Pageable pageable);
 
+    @EntityGraph("Item.owner")
+    List<Item> findByOwner_IdAndIdGreaterThanOrderById(Long userId, Long itemId, Pageable pageable);
+
+    @EntityGraph("Item.owner")
     @Query("SELECT i " +
             "FROM Item i " +
             "WHERE i.available = true " +
             "AND ((LOWER(i.name) LIKE LOWER(concat('%',:text,'%'))) " +
-            "OR (LOWER(i.description) LIKE LOWER(concat('%',:text,'%'))))")
+            "OR (LOWER(i.description) LIKE LOWER(concat('%',:text,'%')))) " +
+            "ORDER BY i.id")
     List<Item> searchAvailableItems(@Param("text") String text, Pageable pageable);
 
+    @Query(value = "SELECT i.id " +
+            "FROM items i " +
+            "WHERE i.is_available = TRUE " +
+            "AND (LOWER(i.name) LIKE CONCAT('%', LOWER(:text), '%') " +
+            "OR LOWER(i.description) LIKE CONCAT('%', LOWER(:text), '%')) " +
+            "ORDER BY GREATEST(similarity(LOWER(i.name), LOWER(:text)), " +
+            "similarity(LOWER(i.description), LOWER(:text))) DESC, i.id",
+            nativeQuery = true)
+    List<Number> searchAvailableItemIdsRanked(@Param("text") String text, Pageable pageable);
+
+    @EntityGraph("Item.owner")
+    List<Item> findAllByAvailableTrueOrderById(Pageable pageable);
+
+    @EntityGraph("Item.owner")
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<Item> findAllByRequest_IdOrderByIdDesc(Long userId);
 
+    @EntityGraph("Item.owner")
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
+    List<Item> findAllByRequest_IdInOrderByIdDesc(List<Long> requestsId);
+
 }
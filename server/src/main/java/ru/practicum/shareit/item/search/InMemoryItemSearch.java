@@ -0,0 +1,325 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search over an in-process trigram index of available items, so that /items/search never reaches the database.
+ * Postings are sorted {@code long[]} arrays of item IDs; every hit is re-checked with a substring match
+ * to keep the same results as the LIKE query. Until the startup load finishes, searches fall back to the LIKE query
+ * and committed changes are queued, then replayed over the loaded index.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearch implements ItemSearch {
+
+    private static final int GRAM = 3;
+
+    private static final int LOAD_BATCH = 1000;
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Item> items = new TreeMap<>();
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final List<Runnable> pending = new ArrayList<>();
+    private volatile boolean ready;
+
+    public InMemoryItemSearch(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Items arrive in id order, so every posting list is built by appending to a growable buffer and trimmed once;
+     * copy-on-write inserts are left to the incremental updates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        NavigableMap<Long, Item> loaded = new TreeMap<>();
+        Map<String, PostingBuilder> builders = new HashMap<>();
+        int page = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAllByAvailableTrueOrderById(PageRequest.of(page++, LOAD_BATCH));
+            for (Item item : batch) {
+                loaded.put(item.getId(), item);
+                for (String gram : grams(item)) {
+                    builders.computeIfAbsent(gram, g -> new PostingBuilder()).add(item.getId());
+                }
+            }
+        } while (batch.size() == LOAD_BATCH);
+        withWriteLock(() -> {
+            items.putAll(loaded);
+            builders.forEach((gram, builder) -> postings.put(gram, builder.toArray()));
+            pending.forEach(Runnable::run);
+            log.info("Item search index loaded: {} items, {} grams, {} changes replayed",
+                    items.size(), postings.size(), pending.size());
+            pending.clear();
+            ready = true;
+        });
+    }
+
+    @Override
+    public void onItemSaved(Item item) {
+        Item snapshot = Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .request(item.getRequest())
+                .build();
+        afterCommit(() -> index(snapshot));
+    }
+
+    /**
+     * Indexed items carry their owner into search results, so a changed name or e-mail replaces it on every
+     * item of that owner.
+     */
+    @Override
+    public void onOwnerUpdated(User owner) {
+        User snapshot = new User(owner.getId(), owner.getName(), owner.getEmail());
+        afterCommit(() -> replaceOwner(snapshot));
+    }
+
+    @Override
+    public void onOwnerDeleted(Long ownerId) {
+        afterCommit(() -> unindexOwner(ownerId));
+    }
+
+    @Override
+    public List<Item> searchAvailableItems(String text, Pageable pageable) {
+        if (!ready) {
+            return itemRepository.searchAvailableItems(text, pageable);
+        }
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Item> result = new ArrayList<>();
+        long skip = pageable.getOffset();
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                Item item = items.get(id);
+                if (!matches(item, query)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                result.add(item);
+                if (result.size() == pageable.getPageSize()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Runnable change) {
+        withWriteLock(() -> {
+            if (ready) {
+                change.run();
+            } else {
+                pending.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Item item) {
+        unindex(item.getId());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            items.put(item.getId(), item);
+            grams(item).forEach(gram -> addPosting(gram, item.getId()));
+        }
+    }
+
+    private void unindex(Long itemId) {
+        Item old = items.remove(itemId);
+        if (old != null) {
+            grams(old).forEach(gram -> removePosting(gram, old.getId()));
+        }
+    }
+
+    private void replaceOwner(User owner) {
+        items.replaceAll((id, item) -> isOwnedBy(item, owner.getId()) ? Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(owner)
+                .request(item.getRequest())
+                .build() : item);
+    }
+
+    private void unindexOwner(Long ownerId) {
+        List<Long> owned = new ArrayList<>();
+        items.values().forEach(item -> {
+            if (isOwnedBy(item, ownerId)) {
+                owned.add(item.getId());
+            }
+        });
+        owned.forEach(this::unindex);
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM) {
+            return items.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            long[] list = postings.get(gram);
+            if (list == null) {
+                return EMPTY;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private void addPosting(String gram, long id) {
+        long[] list = postings.getOrDefault(gram, EMPTY);
+        int pos = Arrays.binarySearch(list, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insert = -pos - 1;
+        long[] updated = new long[list.length + 1];
+        System.arraycopy(list, 0, updated, 0, insert);
+        updated[insert] = id;
+        System.arraycopy(list, insert, updated, insert + 1, list.length - insert);
+        postings.put(gram, updated);
+    }
+
+    private void removePosting(String gram, long id) {
+        long[] list = postings.get(gram);
+        if (list == null) {
+            return;
+        }
+        int pos = Arrays.binarySearch(list, id);
+        if (pos < 0) {
+            return;
+        }
+        if (list.length == 1) {
+            postings.remove(gram);
+            return;
+        }
+        long[] updated = new long[list.length - 1];
+        System.arraycopy(list, 0, updated, 0, pos);
+        System.arraycopy(list, pos + 1, updated, pos, list.length - pos - 1);
+        postings.put(gram, updated);
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private static boolean isOwnedBy(Item item, Long ownerId) {
+        return item.getOwner() != null && ownerId.equals(item.getOwner().getId());
+    }
+
+    private static boolean matches(Item item, String query) {
+        return item.getName().toLowerCase(Locale.ROOT).contains(query)
+                || item.getDescription().toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    private static Set<String> grams(Item item) {
+        Set<String> grams = grams(item.getName().toLowerCase(Locale.ROOT));
+        grams.addAll(grams(item.getDescription().toLowerCase(Locale.ROOT)));
+        return grams;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static final class PostingBuilder {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+public interface ItemSearch {
+
+    List<Item> searchAvailableItems(String text, Pageable pageable);
+
+    default void onItemSaved(Item item) {
+    }
+
+    default void onOwnerUpdated(User owner) {
+    }
+
+    default void onOwnerDeleted(Long ownerId) {
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL search served by the pg_trgm GIN indexes (db/migration/postgresql), ranked by similarity. The ranked
+ * page is read as ids only and then loaded with owners through the {@code Item.owner} graph.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailableItems(String text, Pageable pageable) {
+        List<Long> itemsId = itemRepository.searchAvailableItemIdsRanked(text, pageable).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (itemsId.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Item> items = itemRepository.findAllByIdIn(itemsId).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemsId.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+}
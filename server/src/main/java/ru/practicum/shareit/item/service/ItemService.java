@@ -3,21 +3,31 @@ package ru.practicum.shareit.item.service;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.AnswerItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.PageCursor;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto createItem(Long userId, ItemDto itemDto);
 
+    List<ItemDto> createItems(Long userId, List<ItemDto> itemDtos);
+
     ItemDto updateItem(Long itemId, ItemDto itemDto, Long userId);
 
     AnswerItemDto getItem(Long itemId, Long userId);
 
     List<AnswerItemDto> getItemsByUser(Long userId, Pageable pageable);
 
+    List<AnswerItemDto> getItemsByUser(Long userId, PageCursor after, int size);
+
     List<ItemDto> getAvailableItems(Long userId, String text, Pageable pageable);
 
     CommentDto createComment(Long itemId, Long userId, CommentDto commentDto);
+
+    ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, Duration duration, int count);
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
 import ru.practicum.shareit.booking.dto.InfoBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -13,25 +16,30 @@ import ru.practicum.shareit.exceptions.EntityNotAvailable;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.AnswerItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.mapper.EntityMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
-import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,6 +49,7 @@ public class ItemServiceImpl implements ItemService {
 
     private static final Sort SORT_DESC = Sort.by(Sort.Direction.DESC, "end");
     private static final Sort SORT_ASC = Sort.by(Sort.Direction.ASC, "start");
+    private static final int MAX_BATCH_ITEMS = 1000;
 
     private final UserService userService;
     private final BookingRepository bookingRepository;
@@ -48,9 +57,12 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
     private final EntityMapper mapper;
+    private final AvailabilityIndex availabilityIndex;
 
     @Override
+    @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) throws EntityNotFoundException {
         User owner = mapper.toUser(userService.getUser(userId));
         ItemRequest request = null;
@@ -59,8 +71,46 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new EntityNotFoundException(
                             "ItemRequest with ID " + itemDto.getRequestId() + " does not exist"));
         }
-        Item item = mapper.toItem(itemDto, owner, request);
-        return mapper.toItemDto(itemRepository.save(item));
+        Item item = itemRepository.save(mapper.toItem(itemDto, owner, request));
+        itemSearch.onItemSaved(item);
+        return mapper.toItemDto(item);
+    }
+
+    /**
+     * Creates all items of one owner in one transaction. The owner and the referenced requests are resolved once for
+     * the whole batch, and the inserts are left to the flush at commit, which JDBC batching groups by
+     * {@code hibernate.jdbc.batch_size}. Items come back in the order they were sent.
+     */
+    @Override
+    @Transactional
+    public List<ItemDto> createItems(Long userId, List<ItemDto> itemDtos) {
+        if (itemDtos == null || itemDtos.isEmpty() || itemDtos.size() > MAX_BATCH_ITEMS) {
+            throw new EntityNotAvailable("Batch takes from 1 to " + MAX_BATCH_ITEMS + " items");
+        }
+        User owner = mapper.toUser(userService.getUser(userId));
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<Item> items = new ArrayList<>();
+        for (ItemDto itemDto : itemDtos) {
+            Long requestId = itemDto.getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                throw new EntityNotFoundException("ItemRequest with ID " + requestId + " does not exist");
+            }
+            Item item = mapper.toItem(itemDto, owner, requests.get(requestId));
+            // ids come from the sequence; a client-supplied one would turn the batched insert into a merge
+            item.setId(null);
+            items.add(item);
+        }
+        List<Item> saved = itemRepository.saveAll(items);
+        saved.forEach(itemSearch::onItemSaved);
+        log.info("{} items were created by user ID {}", saved.size(), userId);
+        return saved.stream()
+                .map(mapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -74,7 +124,7 @@ public class ItemServiceImpl implements ItemService {
             newItemDto.setId(itemId);
             Item item = mapper.updatedItem(newItemDto, oldItem);
             item.setOwner(owner);
-            itemRepository.save(item);
+            itemSearch.onItemSaved(itemRepository.save(item));
             log.info("Item ID {} was updated by user ID {}", itemId, userId);
             return mapper.toItemDto(item);
         } else {
@@ -83,6 +133,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AnswerItemDto getItem(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("Item with ID " + itemId + " does not exist"));
@@ -113,74 +164,35 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnswerItemDto> getItemsByUser(Long userId, Pageable pageable) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
         }
 
-        LocalDateTime now = LocalDateTime.now();
-        List<Item> items = itemRepository.findByOwner_IdOrderById(userId, pageable);
-        List<Long> itemsId = items
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        List<Comment> allComments = commentRepository.findAllByItemsId(itemsId);
-
-        List<Booking> allLastBookings = bookingRepository
-                .findFirstByItem_IdInAndItem_Owner_IdAndStartIsBefore(
-                        itemsId,
-                        userId,
-                        now,
-                        SORT_DESC);
-
-        List<Booking> allNextBookings = bookingRepository
-                .findFirstByItem_IdInAndItem_Owner_IdAndStartIsAfterAndStatusIsNotAndStatusIsNot(
-                        itemsId,
-                        userId,
-                        now,
-                        Status.CANCELED,
-                        Status.REJECTED,
-                        SORT_ASC);
-
-        Map<Long, Booking> lastBookings = new HashMap<>();
-        Map<Long, Booking> nextBookings = new HashMap<>();
-        Map<Long, List<Comment>> comments = new HashMap<>();
-
-        // Prepare maps
-        itemsId.forEach(key -> {
-            allLastBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(key))
-                    .findFirst()
-                    .ifPresent(booking -> lastBookings.put(key, booking));
-            allNextBookings.stream()
-                    .filter(booking -> booking.getItem().getId().equals(key))
-                    .findFirst()
-                    .ifPresent(booking -> nextBookings.put(key, booking));
-            List<Comment> valueOfComments = allComments.stream()
-                    .filter(comment -> Objects.equals(comment.getAuthor().getId(), key) && key != null)
-                    .collect(Collectors.toList());
-            comments.put(key, valueOfComments);
-        });
+        return toAnswerItemDtos(userId, itemRepository.findByOwner_IdOrderById(userId, pageable));
+    }
 
-        // Prepare and return result
-        return items.stream()
-                .map(item -> mapper.toAnswerItemDto(
-                        item,
-                        mapper.toInfoBookingDto(lastBookings.get(item.getId())),
-                        mapper.toInfoBookingDto(nextBookings.get(item.getId())),
-                        comments.get(item.getId())
-                                .stream()
-                                .map(mapper::toCommentDto)
-                                .collect(Collectors.toList())))
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public List<AnswerItemDto> getItemsByUser(Long userId, PageCursor after, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new EntityNotFoundException("User with ID " + userId + " does not exist");
+        }
+        List<Item> items = after == null
+                ? itemRepository.findByOwner_IdOrderById(userId, PageRequest.of(0, size))
+                : itemRepository.findByOwner_IdAndIdGreaterThanOrderById(
+                        userId, after.getId(), PageRequest.of(0, size));
+        return toAnswerItemDtos(userId, items);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getAvailableItems(Long userId, String text, Pageable pageable) {
         if (text.isBlank()) {
             return new ArrayList<>();
         } else {
-            return itemRepository.searchAvailableItems(text, pageable)
+            return itemSearch.searchAvailableItems(text, pageable)
                     .stream()
                     .map(mapper::toItemDto)
                     .collect(Collectors.toList());
@@ -188,6 +200,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public CommentDto createComment(Long itemId, Long userId, CommentDto commentDto) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException("Item with ID " + itemId + " does not exist"));
@@ -201,4 +214,50 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getItemAvailability(Long itemId, LocalDateTime start, Duration duration, int count) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Item with ID " + itemId + " does not exist"));
+        ItemAvailabilityDto.ItemAvailabilityDtoBuilder availability = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plus(duration));
+        if (!item.getAvailable()) {
+            return availability.available(false).freeWindows(new ArrayList<>()).build();
+        }
+        return availability
+                .available(availabilityIndex.isFree(itemId, start, start.plus(duration)))
+                .freeWindows(availabilityIndex.freeWindows(itemId, start, duration, count))
+                .build();
+    }
+
+    private List<AnswerItemDto> toAnswerItemDtos(Long userId, List<Item> items) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemsId = items
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Comment> allComments = commentRepository.findAllByItemsId(itemsId);
+
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        if (!itemsId.isEmpty()) {
+            bookingRepository.findLastAndNextBookings(itemsId, userId, now)
+                    .forEach(booking -> (booking.getStart().isBefore(now) ? lastBookings : nextBookings)
+                            .put(booking.getItem().getId(), booking));
+        }
+        Map<Long, List<CommentDto>> comments = allComments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(mapper::toCommentDto, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> mapper.toAnswerItemDto(
+                        item,
+                        mapper.toInfoBookingDto(lastBookings.get(item.getId())),
+                        mapper.toInfoBookingDto(nextBookings.get(item.getId())),
+                        comments.getOrDefault(item.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.mapper;
 
+import org.hibernate.Hibernate;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
@@ -66,6 +67,10 @@ public interface EntityMapper {
 
     UserDto toUserDto(User user);
 
+    default User toOwner(User owner) {
+        return (User) Hibernate.unproxy(owner);
+    }
+
     default User updatedUser(UserDto userDto, User user) {
         return User.builder()
                 .id(userDto.getId())
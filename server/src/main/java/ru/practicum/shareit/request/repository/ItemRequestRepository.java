@@ -3,16 +3,21 @@ package ru.practicum.shareit.request.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     List<ItemRequest> findAllByRequesterIdOrderByCreatedDesc(Long userId);
 
-
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     @Query("SELECT r " +
             "FROM ItemRequest r " +
             "WHERE r.requester.id <> :userId " +
@@ -4,7 +4,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.EntityMapper;
 import ru.practicum.shareit.request.dto.AnswerItemRequestDto;
@@ -16,6 +18,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +32,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final EntityMapper mapper;
 
     @Override
+    @Transactional
     public AnswerItemRequestDto createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User with ID " + userId + " does not exist"));
@@ -37,29 +41,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnswerItemRequestDto> getUsersItemRequests(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
         }
         List<ItemRequest> requests = itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(userId);
-        return requests.stream()
-                .map(req -> mapper.toAnswerItemRequestDto(req, itemRepository.findAllByRequest_IdOrderByIdDesc(req.getId())))
-                .collect(Collectors.toList());
+        return toAnswerItemRequestDtos(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AnswerItemRequestDto> getItemRequests(Long userId, Pageable pageable) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
         }
         List<ItemRequest> requests = itemRequestRepository.findRequestsWithoutOwner(userId, pageable);
-        return requests.stream()
-                .map(request -> mapper.toAnswerItemRequestDto(request,
-                        itemRepository.findAllByRequest_IdOrderByIdDesc(request.getId())))
-                .collect(Collectors.toList());
+        return toAnswerItemRequestDtos(requests);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AnswerItemRequestDto getItemRequestById(Long requestId, Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new EntityNotFoundException("User with ID " + userId + " does not exist");
@@ -69,4 +71,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return mapper.toAnswerItemRequestDto(itemRequest, itemRepository.findAllByRequest_IdOrderByIdDesc(itemRequest.getId()));
     }
 
+    private List<AnswerItemRequestDto> toAnswerItemRequestDtos(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestsId = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequest_IdInOrderByIdDesc(requestsId).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        return requests.stream()
+                .map(request -> mapper.toAnswerItemRequestDto(request,
+                        items.getOrDefault(request.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
 }
@@ -1,7 +1,30 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.annotations.QueryHints.FETCH_SIZE;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    boolean existsByEmailIgnoreCaseAndIdNot(String email, Long userId);
+
+    List<User> findAllByOrderById(Pageable pageable);
+
+    List<User> findByIdGreaterThanOrderById(Long userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) " +
+            "FROM User u " +
+            "ORDER BY u.id")
+    Stream<UserDto> streamAllUsers();
+
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -12,7 +15,11 @@ public interface UserService {
 
     UserDto getUser(Long id);
 
-    List<UserDto> getAllUsers();
+    List<UserDto> getAllUsers(Pageable pageable);
+
+    List<UserDto> getAllUsers(PageCursor after, int size);
+
+    void streamAllUsers(Consumer<UserDto> consumer);
 
     void deleteUser(Long id);
 
@@ -2,18 +2,24 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.mapper.EntityMapper;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import javax.transaction.Transactional;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -22,34 +28,45 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final EntityMapper mapper;
+    private final ItemSearch itemSearch;
 
     @Transactional
     @Override
     public UserDto createUser(UserDto userDto) {
         User user = mapper.toUser(userDto);
         try {
-            return mapper.toUserDto(userRepository.save(user));
-        } catch (ConstraintViolationException e) {
+            User saved = userRepository.save(user);
+            // sequence ids defer the INSERT; flush so a taken e-mail fails here rather than at commit
+            userRepository.flush();
+            return mapper.toUserDto(saved);
+        } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Mail " + userDto.getEmail() + " already used by another user");
         }
     }
 
     @Override
+    @Transactional
     public UserDto updateUser(UserDto newUserDto, Long userId) {
         User oldUser = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User with ID " + userId + " does not exist"));
-        if (!isUsersMailInBase(newUserDto) || newUserDto.getEmail().equals(oldUser.getEmail())) {
-            newUserDto.setId(userId);
-            User user = mapper.updatedUser(newUserDto, oldUser);
-            userRepository.save(user);
-            log.info("User ID {} was updated", newUserDto.getId());
-            return mapper.toUserDto(user);
-        } else {
+        if (newUserDto.getEmail() != null
+                && userRepository.existsByEmailIgnoreCaseAndIdNot(newUserDto.getEmail(), userId)) {
             throw new ConflictException("Mail " + newUserDto.getEmail() + " already used by another user");
         }
+        newUserDto.setId(userId);
+        User user = mapper.updatedUser(newUserDto, oldUser);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Mail " + newUserDto.getEmail() + " already used by another user");
+        }
+        itemSearch.onOwnerUpdated(user);
+        log.info("User ID {} was updated", newUserDto.getId());
+        return mapper.toUserDto(user);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUser(Long id) throws EntityNotFoundException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User with ID " + id + " does not exist"));
@@ -58,23 +75,38 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        return userRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllUsers(Pageable pageable) {
+        return userRepository.findAllByOrderById(pageable).stream()
+                .map(mapper::toUserDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDto> getAllUsers(PageCursor after, int size) {
+        List<User> users = after == null
+                ? userRepository.findAllByOrderById(PageRequest.of(0, size))
+                : userRepository.findByIdGreaterThanOrderById(after.getId(), PageRequest.of(0, size));
+        return users.stream()
                 .map(mapper::toUserDto)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllUsers(Consumer<UserDto> consumer) {
+        try (Stream<UserDto> users = userRepository.streamAllUsers()) {
+            users.forEach(consumer);
+        }
+    }
+
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        itemSearch.onOwnerDeleted(id);
         log.info("User with ID {} was deleted", id);
     }
 
-    private boolean isUsersMailInBase(UserDto userDto) {
-        List<UserDto> repeats = getAllUsers().stream()
-                .filter(u -> u.getEmail().equals(userDto.getEmail()))
-                .collect(Collectors.toList());
-        return repeats.size() != 0;
-    }
-
-}
\ No newline at end of file
+}
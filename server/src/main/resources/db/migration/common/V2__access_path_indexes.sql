@@ -0,0 +1,17 @@
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_booker_end_idx ON bookings (item_id, booker_id, end_date);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id, id DESC);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, creation_date DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (creation_date DESC);
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS bookings_item_start_active_idx
+    ON bookings (item_id, start_date) WHERE status NOT IN ('CANCELED', 'REJECTED');
+
+CREATE INDEX IF NOT EXISTS items_available_idx
+    ON items (id) WHERE is_available = TRUE;
@@ -0,0 +1,21 @@
+-- Users whose e-mails differ only in case cannot be merged automatically: they own items, bookings and requests.
+-- If this migration stops on them, give every duplicate but one a different e-mail
+-- (e.g. UPDATE users SET email = 'old-' || id || '-' || email WHERE id IN (...)) and rerun it.
+DO
+$$
+    DECLARE
+        duplicates TEXT;
+    BEGIN
+        SELECT string_agg(emails, '; ')
+        INTO duplicates
+        FROM (SELECT string_agg(id || ' ' || email, ', ' ORDER BY id) AS emails
+              FROM users
+              GROUP BY UPPER(email)
+              HAVING COUNT(*) > 1) AS groups;
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Users with e-mails equal ignoring case must be resolved first: %', duplicates;
+        END IF;
+    END
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_upper_uidx ON users (UPPER(email));
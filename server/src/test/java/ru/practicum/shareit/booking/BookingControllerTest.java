@@ -10,9 +10,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BulkBookingDecisionDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -26,11 +30,14 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -113,6 +120,26 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(answerBookingDto.getStatus().toString())));
     }
 
+    @Test
+    void confirmationBookings() throws Exception {
+        BulkBookingDecisionDto bulkDecisionDto = new BulkBookingDecisionDto(List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false)));
+        when(bookingService.confirmationBookings(2L, bulkDecisionDto.getDecisions())).thenReturn(List.of(
+                new BookingDecisionResultDto(1L, Status.APPROVED, null),
+                new BookingDecisionResultDto(2L, null, "Booking with ID 2 does not exist")));
+
+        mockMvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 2L)
+                        .content(mapper.writeValueAsString(bulkDecisionDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Booking with ID 2 does not exist")));
+    }
+
     @Test
     void getBooking() throws Exception {
         when(bookingService.getBooking(anyLong(), anyLong())).thenReturn(answerBookingDto);
@@ -163,4 +190,30 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].status", is(answerBookingDto.getStatus().toString())));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getAllBookingByUser_withCursor() throws Exception {
+        PageCursor after = PageCursor.of(LocalDateTime.now().plusDays(1), 5L);
+        PageCursor next = PageCursor.of(answerBookingDto.getStart(), answerBookingDto.getId());
+        when(bookingService.getAllBookingByUser(anyLong(), any(), eq(after), anyInt()))
+                .thenReturn(List.of(answerBookingDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("after", after.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.HEADER, next.encode()))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(answerBookingDto.getId()), Long.class));
+    }
+
+    @Test
+    void getAllBookingByOwner_withWrongCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+}
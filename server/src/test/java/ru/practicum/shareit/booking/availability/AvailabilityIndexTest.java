@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTest {
+
+    BookingRepository bookingRepository;
+    PlatformTransactionManager transactionManager;
+    AvailabilityIndex availabilityIndex;
+    LocalDateTime base;
+    Item item;
+    User booker;
+
+    @BeforeEach
+    void beforeEach() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        booker = new User(2L, "booker", "booker@ya.ru");
+        item = new Item(1L, "item", "desc", true, new User(1L, "owner", "owner@ya.ru"), null);
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveBookings(eq(1L), any(), any())).thenReturn(List.of(
+                new InfoBookingDto(1L, 2L, base, base.plusHours(2)),
+                new InfoBookingDto(2L, 2L, base.plusHours(1), base.plusHours(3)),
+                new InfoBookingDto(3L, 2L, base.plusHours(5), base.plusHours(6))));
+        transactionManager = mock(PlatformTransactionManager.class);
+        availabilityIndex = new AvailabilityIndex(bookingRepository, transactionManager, 1_000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void isFree_checksMergedBusyBlocks() {
+        assertFalse(availabilityIndex.isFree(1L, base.plusMinutes(150), base.plusHours(4)));
+        assertFalse(availabilityIndex.isFree(1L, base.minusHours(1), base.plusHours(7)));
+        assertTrue(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(5)));
+        assertTrue(availabilityIndex.isFree(1L, base.minusHours(1), base));
+        assertTrue(availabilityIndex.isFree(1L, base.plusHours(6), base.plusHours(8)));
+
+        verify(bookingRepository, times(1)).findActiveBookings(eq(1L), any(), any());
+    }
+
+    @Test
+    void freeWindows_gapsLongEnoughAndOpenEnd() {
+        List<FreeWindowDto> windows = availabilityIndex.freeWindows(1L, base.minusHours(1), Duration.ofHours(1), 5);
+
+        assertEquals(List.of(
+                new FreeWindowDto(base.minusHours(1), base),
+                new FreeWindowDto(base.plusHours(3), base.plusHours(5)),
+                new FreeWindowDto(base.plusHours(6), null)), windows);
+        assertEquals(List.of(new FreeWindowDto(base.plusHours(3), base.plusHours(5))),
+                availabilityIndex.freeWindows(1L, base.plusMinutes(30), Duration.ofHours(2), 1));
+        assertEquals(List.of(new FreeWindowDto(base.plusHours(6), null)),
+                availabilityIndex.freeWindows(1L, base.plusMinutes(30), Duration.ofHours(3), 1));
+    }
+
+    @Test
+    void onBookingSaved_addsMovesAndRemovesBooking() {
+        availabilityIndex.isFree(1L, base, base.plusHours(1));
+        Booking booking = new Booking(4L, base.plusHours(3), base.plusHours(4), item, booker, Status.WAITING);
+
+        availabilityIndex.onBookingSaved(booking);
+        assertFalse(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(5)));
+
+        booking.setStart(base.plusHours(4));
+        booking.setEnd(base.plusHours(5));
+        availabilityIndex.onBookingSaved(booking);
+        assertTrue(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(4)));
+        assertFalse(availabilityIndex.isFree(1L, base.plusHours(4), base.plusHours(5)));
+
+        booking.setStatus(Status.REJECTED);
+        availabilityIndex.onBookingSaved(booking);
+        assertTrue(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(5)));
+    }
+
+    @Test
+    void invalidate_reloadsOnNextUse() {
+        availabilityIndex.isFree(1L, base, base.plusHours(1));
+        availabilityIndex.invalidate(1L);
+        availabilityIndex.isFree(1L, base, base.plusHours(1));
+
+        verify(bookingRepository, times(2)).findActiveBookings(eq(1L), any(), any());
+    }
+
+    @Test
+    void load_runsInNewReadWriteTransaction() {
+        availabilityIndex.isFree(1L, base, base.plusHours(1));
+
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()
+                && definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Test
+    void load_racingWithChange_notCached() {
+        Booking booking = new Booking(4L, base.plusHours(3), base.plusHours(4), item, booker, Status.WAITING);
+        when(bookingRepository.findActiveBookings(eq(1L), any(), any()))
+                .thenAnswer(invocation -> {
+                    availabilityIndex.onBookingSaved(booking);
+                    return List.of();
+                })
+                .thenReturn(List.of(new InfoBookingDto(4L, 2L, base.plusHours(3), base.plusHours(4))));
+
+        assertTrue(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(4)));
+        assertFalse(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(4)));
+        assertFalse(availabilityIndex.isFree(1L, base.plusHours(3), base.plusHours(4)));
+
+        verify(bookingRepository, times(2)).findActiveBookings(eq(1L), any(), any());
+    }
+
+}
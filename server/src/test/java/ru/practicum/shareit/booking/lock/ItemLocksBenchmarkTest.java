@@ -0,0 +1,69 @@
+package ru.practicum.shareit.booking.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking writes per second under striped item locks: all threads on one item versus threads spread over many
+ * items, and the same spread behind a single global lock. The critical section parks for the length of a database
+ * round trip. Run with {@code mvn test -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemLocksBenchmarkTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int WRITES_PER_THREAD = 500;
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    @Test
+    void withLock_manyItemsScaleWithThreads() throws Exception {
+        run(new ItemLocks(64), 1);
+
+        double oneItem = run(new ItemLocks(64), 1);
+        double globalLock = run(new ItemLocks(1), 1_000);
+        double manyItems = run(new ItemLocks(64), 1_000);
+        log.info("item locks, {} threads: one item {} writes/s, global lock {} writes/s, many items {} writes/s",
+                THREADS, Math.round(oneItem), Math.round(globalLock), Math.round(manyItems));
+
+        assertTrue(manyItems > oneItem * 2, "Writes to different items must not wait for each other");
+        assertTrue(manyItems > globalLock * 2, "Striping must beat a single lock");
+    }
+
+    private double run(ItemLocks itemLocks, int items) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                long firstItem = t;
+                futures.add(executor.submit(() -> {
+                    for (int n = 0; n < WRITES_PER_THREAD; n++) {
+                        long itemId = (firstItem + (long) n * THREADS) % items + 1;
+                        itemLocks.withLock(itemId, () -> {
+                            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+                            return null;
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return THREADS * WRITES_PER_THREAD / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
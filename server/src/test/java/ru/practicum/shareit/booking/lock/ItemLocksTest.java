@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemLocksTest {
+
+    @Test
+    void stripes_roundedUpToPowerOfTwo() {
+        assertEquals(1, new ItemLocks(1).size());
+        assertEquals(64, new ItemLocks(64).size());
+        assertEquals(128, new ItemLocks(65).size());
+        assertThrows(IllegalArgumentException.class, () -> new ItemLocks(0));
+    }
+
+    @Test
+    void stripe_neighbouringItemsDoNotShare() {
+        ItemLocks itemLocks = new ItemLocks(64);
+        Set<Integer> stripes = new HashSet<>();
+        for (long itemId = 1; itemId <= 64; itemId++) {
+            stripes.add(itemLocks.stripe(itemId));
+        }
+
+        assertEquals(64, stripes.size());
+    }
+
+    @Test
+    void withLock_sameItemRunsOneAtATime() throws Exception {
+        ItemLocks itemLocks = new ItemLocks(64);
+        int[] counter = new int[1];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> tasks = IntStream.range(0, 8)
+                    .<Callable<Integer>>mapToObj(i -> () -> {
+                        for (int n = 0; n < 10_000; n++) {
+                            itemLocks.withLock(1L, () -> counter[0]++);
+                        }
+                        return i;
+                    })
+                    .collect(Collectors.toList());
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(80_000, counter[0]);
+    }
+
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Booking insert throughput with and without JDBC batching. Run with {@code mvn test -Dbenchmark=true}.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingInsertBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int ROUNDS = 5;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void insertBookings_batchedVsSingleRow() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Item item = transactionTemplate.execute(status -> {
+            User owner = new User(null, "bench-owner", "bench-owner@ya.ru");
+            entityManager.persist(owner);
+            Item saved = new Item(null, "bench", "bench", true, owner, null);
+            entityManager.persist(saved);
+            return saved;
+        });
+        insert(item, 1);
+        insert(item, 50);
+
+        double[] rowsPerSecond = new double[2];
+        long[] statements = new long[2];
+        int[] batchSizes = {1, 50};
+        for (int i = 0; i < batchSizes.length; i++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                insert(item, batchSizes[i]);
+            }
+            rowsPerSecond[i] = ROWS * ROUNDS / ((System.nanoTime() - start) / 1e9);
+            statements[i] = statistics.getPrepareStatementCount() / ROUNDS;
+            log.info("insert bookings: batch size {} -> {} rows/s, {} statements per {} rows",
+                    batchSizes[i], Math.round(rowsPerSecond[i]), statements[i], ROWS);
+        }
+
+        assertTrue(statements[1] * 10 < statements[0], "Batched inserts must need far fewer statements");
+    }
+
+    private void insert(Item item, int batchSize) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User booker = entityManager.find(User.class, item.getOwner().getId());
+            Item managedItem = entityManager.getReference(Item.class, item.getId());
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(new Booking(null, now.plusHours(i), now.plusHours(i + 1), managedItem,
+                        booker, Status.WAITING));
+            }
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+    }
+
+}
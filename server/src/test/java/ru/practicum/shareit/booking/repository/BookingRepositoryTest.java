@@ -1,11 +1,19 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -14,11 +22,17 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 class BookingRepositoryTest {
 
@@ -34,6 +48,9 @@ class BookingRepositoryTest {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     User user;
     User user2;
     User owner;
@@ -85,4 +102,127 @@ class BookingRepositoryTest {
 
         assertEquals(res, false);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAnswerBookings_byOwnerWaitingPaged() {
+        List<AnswerBookingDto> firstPage = bookingRepository.findAnswerBookings(
+                owner.getId(), true, State.WAITING, LocalDateTime.now(), PageRequest.of(0, 1));
+        List<AnswerBookingDto> secondPage = bookingRepository.findAnswerBookings(
+                owner.getId(), true, State.WAITING, LocalDateTime.now(), PageRequest.of(1, 1));
+
+        assertEquals(firstPage.size(), 1);
+        assertEquals(firstPage.get(0).getId(), booking2.getId());
+        assertEquals(secondPage.size(), 1);
+        assertEquals(secondPage.get(0).getId(), booking.getId());
+    }
+
+    @Test
+    void findAnswerBookings_selectsDtoColumns() {
+        List<AnswerBookingDto> res = bookingRepository.findAnswerBookings(
+                user.getId(), false, State.PAST, LocalDateTime.now(), PageRequest.of(0, 10));
+
+        assertEquals(res.size(), 1);
+        assertEquals(res.get(0).getId(), booking.getId());
+        assertEquals(res.get(0).getItem().getId(), item.getId());
+        assertEquals(res.get(0).getItem().getName(), item.getName());
+        assertEquals(res.get(0).getBooker().getId(), user.getId());
+        assertEquals(res.get(0).getStatus(), Status.WAITING);
+    }
+
+    @Test
+    void findAnswerBookingsAfter_byOwner() {
+        List<AnswerBookingDto> firstPage = bookingRepository.findAnswerBookingsAfter(
+                owner.getId(), true, State.ALL, LocalDateTime.now(), null, null, 1);
+        AnswerBookingDto last = firstPage.get(0);
+        List<AnswerBookingDto> secondPage = bookingRepository.findAnswerBookingsAfter(
+                owner.getId(), true, State.ALL, LocalDateTime.now(), last.getStart(), last.getId(), 1);
+        List<AnswerBookingDto> thirdPage = bookingRepository.findAnswerBookingsAfter(
+                owner.getId(), true, State.ALL, LocalDateTime.now(),
+                secondPage.get(0).getStart(), secondPage.get(0).getId(), 1);
+
+        assertEquals(firstPage.size(), 1);
+        assertEquals(last.getId(), booking2.getId());
+        assertEquals(secondPage.size(), 1);
+        assertEquals(secondPage.get(0).getId(), booking.getId());
+        assertEquals(thirdPage.size(), 0);
+    }
+
+    @Test
+    void findAnswerBookingsAfter_byBookerWithState() {
+        List<AnswerBookingDto> res = bookingRepository.findAnswerBookingsAfter(
+                user2.getId(), false, State.FUTURE, LocalDateTime.now(), null, null, 10);
+
+        assertEquals(res.size(), 1);
+        assertEquals(res.get(0).getId(), booking2.getId());
+        assertEquals(res.get(0).getBooker().getId(), user2.getId());
+    }
+
+    @Test
+    void findById_fetchesItemOnly() {
+        Booking res = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(res.getItem()));
+        assertFalse(Hibernate.isInitialized(res.getItem().getRequest()));
+    }
+
+    @Test
+    void findActiveBookings_onlyActiveNotEnded() {
+        bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6),
+                item, user, Status.REJECTED));
+
+        List<InfoBookingDto> res = bookingRepository.findActiveBookings(
+                item.getId(), List.of(Status.WAITING, Status.APPROVED), LocalDateTime.now());
+
+        assertEquals(res.size(), 1);
+        assertEquals(res.get(0).getId(), booking2.getId());
+        assertEquals(res.get(0).getBookerId(), user2.getId());
+    }
+
+    @Test
+    void saveAll_insertsInBatchesOnFlush() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bookings.add(new Booking(null, LocalDateTime.now().plusDays(i), LocalDateTime.now().plusDays(i + 1),
+                    item, user2, Status.WAITING));
+        }
+        statistics.clear();
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+
+        assertTrue(saved.stream().allMatch(b -> b.getId() != null));
+        assertEquals(0, statistics.getEntityInsertCount());
+
+        bookingRepository.flush();
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 10);
+    }
+
+    @Test
+    void findLastAndNextBookings_onePerItem() {
+        LocalDateTime now = LocalDateTime.now();
+        Item item2 = itemRepository.save(new Item(null, "item2", "desc2", true, owner, null));
+        Booking oldLast = bookingRepository.save(
+                new Booking(null, now.minusDays(5), now.minusDays(4), item2, user, Status.APPROVED));
+        Booking last = bookingRepository.save(
+                new Booking(null, now.minusDays(3), now.minusDays(2), item2, user, Status.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusHours(1), now.plusHours(2), item2, user2, Status.REJECTED));
+        Booking next = bookingRepository.save(
+                new Booking(null, now.plusDays(3), now.plusDays(4), item2, user2, Status.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(5), now.plusDays(6), item2, user2, Status.WAITING));
+
+        List<Booking> res = bookingRepository.findLastAndNextBookings(
+                List.of(item.getId(), item2.getId()), owner.getId(), now);
+        List<Booking> notOwner = bookingRepository.findLastAndNextBookings(
+                List.of(item.getId(), item2.getId()), user.getId(), now);
+
+        assertEquals(res.size(), 4);
+        assertTrue(res.stream().anyMatch(b -> b.getId().equals(booking.getId())));
+        assertTrue(res.stream().anyMatch(b -> b.getId().equals(booking2.getId())));
+        assertTrue(res.stream().anyMatch(b -> b.getId().equals(last.getId())));
+        assertTrue(res.stream().anyMatch(b -> b.getId().equals(next.getId())));
+        assertTrue(res.stream().noneMatch(b -> b.getId().equals(oldLast.getId())));
+        assertEquals(notOwner.size(), 0);
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.booking.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
@@ -17,6 +21,7 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
@@ -42,6 +47,9 @@ class BookingServiceImplIntegrationTest {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void createBooking() {
         User booker = new User();
@@ -196,6 +204,38 @@ class BookingServiceImplIntegrationTest {
         assertEquals(updatedBooking.getStatus(), Status.REJECTED);
     }
 
+    @Test
+    void confirmationBookings_checksAllAndUpdatesInOneBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        User booker = userRepository.save(new User(null, "booker", "booker@ya.ru"));
+        User owner = userRepository.save(new User(null, "owner", "owner@ya.ru"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, owner, null));
+        Booking first = bookingRepository.save(new Booking(null, now.plusHours(1), now.plusHours(2), item, booker,
+                Status.WAITING));
+        Booking second = bookingRepository.save(new Booking(null, now.plusHours(3), now.plusHours(4), item, booker,
+                Status.WAITING));
+        Booking approved = bookingRepository.save(new Booking(null, now.plusHours(5), now.plusHours(6), item, booker,
+                Status.APPROVED));
+        bookingRepository.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingDecisionResultDto> results = bookingService.confirmationBookings(owner.getId(), List.of(
+                new BookingDecisionDto(first.getId(), true),
+                new BookingDecisionDto(second.getId(), false),
+                new BookingDecisionDto(approved.getId(), false),
+                new BookingDecisionDto(Long.MAX_VALUE, true)));
+
+        assertEquals(List.of(
+                new BookingDecisionResultDto(first.getId(), Status.APPROVED, null),
+                new BookingDecisionResultDto(second.getId(), Status.REJECTED, null),
+                new BookingDecisionResultDto(approved.getId(), Status.APPROVED,
+                        "Booking status already confirmed: APPROVED"),
+                new BookingDecisionResultDto(Long.MAX_VALUE, null,
+                        "Booking with ID " + Long.MAX_VALUE + " does not exist")), results);
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
 
     @Test
     void confirmationBooking_wrongBookingId() {
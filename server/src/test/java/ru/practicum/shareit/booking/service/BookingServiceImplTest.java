@@ -6,13 +6,25 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
 import ru.practicum.shareit.booking.dto.AnswerBookingDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
+import ru.practicum.shareit.booking.lock.ItemLocks;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.EntityNotAvailable;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.UnsupportedState;
@@ -24,15 +36,25 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -53,6 +75,12 @@ class BookingServiceImplTest {
     @Autowired
     EntityMapper mapper;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
 
     User user;
     User owner;
@@ -67,7 +95,9 @@ class BookingServiceImplTest {
     @BeforeEach
     void beforeEach() {
         pageable =  PageRequest.of(0, 10);
-        bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository, mapper);
+        bookingService = new BookingServiceImpl(userRepository, itemRepository, bookingRepository, mapper,
+                new AvailabilityIndex(bookingRepository, transactionManager, 1_000, Duration.ofMinutes(10)),
+                new ItemLocks(16), transactionTemplate);
         user = new User(1L, "user", "user@ya.ru");
         owner = new User(2L, "owner", "owner@ya.ru");
         item = new Item(1L, "item", "desc", true, owner, null);
@@ -131,8 +161,46 @@ class BookingServiceImplTest {
         assertThrows(EntityNotFoundException.class, () -> bookingService.createBooking(user.getId(), bookingDto));
     }
 
+    @Test
+    void createBooking_whenPeriodAlreadyBooked() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findActiveBookings(anyLong(), any(), any())).thenReturn(List.of(
+                new InfoBookingDto(5L, 3L, bookingDto.getStart().minusHours(1), bookingDto.getStart().plusHours(1))));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(user.getId(), bookingDto));
+    }
+
+    @Test
+    void createBooking_whenStaleSnapshotIsBusy_rechecksDatabase() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.findActiveBookings(anyLong(), any(), any()))
+                .thenReturn(List.of(new InfoBookingDto(5L, 3L,
+                        bookingDto.getStart().minusHours(1), bookingDto.getStart().plusHours(1))))
+                .thenReturn(List.of());
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        AnswerBookingDto res = bookingService.createBooking(user.getId(), bookingDto);
+
+        assertEquals(res.getId(), booking.getId());
+        verify(bookingRepository, times(2)).findActiveBookings(anyLong(), any(), any());
+    }
+
+    @Test
+    void createBooking_whenExclusionConstraintViolated() {
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(bookingRepository.save(any())).thenReturn(booking);
+        doThrow(new DataIntegrityViolationException("overlap", new SQLException("conflicting key value", "23P01")))
+                .when(bookingRepository).flush();
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(user.getId(), bookingDto));
+    }
+
     @Test
     void confirmationBooking() {
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
         when(bookingRepository.save(any())).thenReturn(booking);
 
@@ -149,8 +217,24 @@ class BookingServiceImplTest {
         assertEquals(res.getStatus(), answerBookingDto.getStatus());
     }
 
+    @Test
+    void confirmationBooking_looksUpItemInReadWriteTransaction() {
+        when(bookingRepository.findItemIdById(anyLong())).thenAnswer(invocation -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            assertFalse(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return Optional.of(item.getId());
+        });
+        when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        bookingService.confirmationBooking(owner.getId(), booking.getId(), true);
+
+        verify(bookingRepository).findItemIdById(booking.getId());
+    }
+
     @Test
     void confirmationBooking_whenUserIsNotOwner() {
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(EntityNotFoundException.class,
@@ -160,12 +244,107 @@ class BookingServiceImplTest {
     @Test
     void confirmationBooking_whenStatusConfirmed() {
         booking.setStatus(Status.REJECTED);
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         assertThrows(EntityNotAvailable.class,
                 () -> bookingService.confirmationBooking(owner.getId(), booking.getId(), true));
     }
 
+    @Test
+    void confirmationBooking_whenBookingDoesNotExist() {
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.confirmationBooking(owner.getId(), 99L, true));
+    }
+
+    @Test
+    void confirmationBooking_retriesAfterConcurrentChange() {
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(new Booking(booking.getId(),
+                booking.getStart(), booking.getEnd(), item, user, Status.WAITING)));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .doNothing()
+                .when(bookingRepository).flush();
+
+        AnswerBookingDto res = bookingService.confirmationBooking(owner.getId(), booking.getId(), false);
+
+        assertEquals(res.getStatus(), Status.REJECTED);
+        verify(bookingRepository, times(2)).findById(booking.getId());
+    }
+
+    @Test
+    void confirmationBooking_whenConcurrentChangesPersist() {
+        when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(new Booking(booking.getId(),
+                booking.getStart(), booking.getEnd(), item, user, Status.WAITING)));
+        when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new ObjectOptimisticLockingFailureException(Booking.class, booking.getId()))
+                .when(bookingRepository).flush();
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.confirmationBooking(owner.getId(), booking.getId(), true));
+        verify(bookingRepository, times(3)).findById(booking.getId());
+    }
+
+    @Test
+    void confirmationBookings_reportsEachDecision() {
+        when(bookingRepository.findItemIdsByIdIn(any())).thenReturn(List.of(item.getId()));
+        when(bookingRepository.findAllByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingDecisionResultDto> res = bookingService.confirmationBookings(owner.getId(), List.of(
+                new BookingDecisionDto(booking.getId(), true),
+                new BookingDecisionDto(booking.getId(), false),
+                new BookingDecisionDto(99L, true)));
+
+        assertEquals(res.size(), 3);
+        assertEquals(res.get(0), new BookingDecisionResultDto(booking.getId(), Status.APPROVED, null));
+        assertEquals(res.get(1).getError(), "Booking with ID " + booking.getId() + " is listed more than once");
+        assertEquals(res.get(2).getError(), "Booking with ID 99 does not exist");
+        verify(bookingRepository).saveAll(List.of(booking));
+    }
+
+    @Test
+    void confirmationBookings_whenUserIsNotOwner() {
+        when(bookingRepository.findItemIdsByIdIn(any())).thenReturn(List.of(item.getId()));
+        when(bookingRepository.findAllByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingDecisionResultDto> res = bookingService.confirmationBookings(99L,
+                List.of(new BookingDecisionDto(booking.getId(), true)));
+
+        assertEquals(res.get(0), new BookingDecisionResultDto(booking.getId(), null,
+                "User ID 99 does not own item in booking ID " + booking.getId()));
+        assertEquals(booking.getStatus(), Status.WAITING);
+    }
+
+    @Test
+    void confirmationBookings_looksUpItemsInReadWriteTransaction() {
+        when(bookingRepository.findItemIdsByIdIn(any())).thenAnswer(invocation -> {
+            assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            assertFalse(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return List.of(item.getId());
+        });
+        when(bookingRepository.findAllByIdIn(any())).thenReturn(List.of(booking));
+
+        bookingService.confirmationBookings(owner.getId(), List.of(new BookingDecisionDto(booking.getId(), true)));
+
+        verify(bookingRepository).findItemIdsByIdIn(Set.of(booking.getId()));
+    }
+
+    @Test
+    void confirmationBookings_whenBookingIdMissing() {
+        assertThrows(EntityNotAvailable.class, () -> bookingService.confirmationBookings(owner.getId(),
+                List.of(new BookingDecisionDto(null, true), new BookingDecisionDto(null, false))));
+        verify(bookingRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    void confirmationBookings_whenNoDecisions() {
+        assertThrows(EntityNotAvailable.class, () -> bookingService.confirmationBookings(owner.getId(), List.of()));
+    }
+
     @Test
     void getBooking_byOwner() {
         when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -208,8 +387,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByUser_statusIsAll() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.ALL), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "ALL", pageable);
 
@@ -231,8 +410,8 @@ class BookingServiceImplTest {
         answerBookingDto.setStart(booking.getStart());
         answerBookingDto.setEnd(booking.getEnd());
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdAndEndIsBefore(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.PAST), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "PAST", pageable);
 
@@ -250,8 +429,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByUser_statusIsFuture() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdAndStartIsAfter(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.FUTURE), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "FUTURE", pageable);
 
@@ -271,8 +450,8 @@ class BookingServiceImplTest {
         booking.setStart(LocalDateTime.now().minusDays(2));
         answerBookingDto.setStart(booking.getStart());
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.CURRENT), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "CURRENT", pageable);
 
@@ -290,8 +469,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByUser_statusIsWaiting() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdAndStatus(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.WAITING), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "WAITING", pageable);
 
@@ -311,8 +490,8 @@ class BookingServiceImplTest {
         booking.setStatus(Status.REJECTED);
         answerBookingDto.setStatus(Status.REJECTED);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByBooker_IdAndStatus(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(false), eq(State.REJECTED), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByUser(user.getId(), "REJECTED", pageable);
 
@@ -338,8 +517,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByOwner_statusIsAll() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.ALL), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "ALL", pageable);
 
@@ -361,8 +540,8 @@ class BookingServiceImplTest {
         answerBookingDto.setStart(booking.getStart());
         answerBookingDto.setEnd(booking.getEnd());
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.PAST), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "PAST", pageable);
 
@@ -380,8 +559,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByOwner_statusIsFuture() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(anyLong(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.FUTURE), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "FUTURE", pageable);
 
@@ -401,8 +580,8 @@ class BookingServiceImplTest {
         booking.setStart(LocalDateTime.now().minusDays(2));
         answerBookingDto.setStart(booking.getStart());
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(anyLong(), any(), any(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.CURRENT), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "CURRENT", pageable);
 
@@ -420,8 +599,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingByOwner_statusIsWaiting() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdAndStatus(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.WAITING), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "WAITING", pageable);
 
@@ -441,8 +620,8 @@ class BookingServiceImplTest {
         booking.setStatus(Status.REJECTED);
         answerBookingDto.setStatus(Status.REJECTED);
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findAllByItem_Owner_IdAndStatus(anyLong(), any()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findAnswerBookings(anyLong(), eq(true), eq(State.REJECTED), any(), any()))
+                .thenReturn(List.of(answerBookingDto));
 
         List<AnswerBookingDto> res = bookingService.getAllBookingByOwner(owner.getId(), "REJECTED", pageable);
 
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class JpaCacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UserDto user;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userService.createUser(new UserDto(null, "cached", "cached@ya.ru"));
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.deleteAll(itemRepository.findByOwner_IdOrderById(user.getId(), Pageable.unpaged()));
+        if (userRepository.existsById(user.getId())) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void getUser_servedFromSecondLevelCache() {
+        userService.getUser(user.getId());
+        userService.getUser(user.getId());
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").meter());
+    }
+
+    @Test
+    void updateUser_andDeleteUser_invalidateCachedUser() {
+        userService.getUser(user.getId());
+
+        userService.updateUser(new UserDto(null, "renamed", null), user.getId());
+        assertEquals("renamed", userService.getUser(user.getId()).getName());
+
+        userService.deleteUser(user.getId());
+        assertThrows(EntityNotFoundException.class, () -> userService.getUser(user.getId()));
+    }
+
+    @Test
+    void updateItem_invalidatesCachedItem() {
+        ItemDto item = itemService.createItem(user.getId(), new ItemDto(null, "drill", "old", true, null, null));
+        itemService.getItem(item.getId(), user.getId());
+
+        itemService.updateItem(item.getId(), new ItemDto(null, null, "new", null, null, null), user.getId());
+
+        assertEquals("new", itemService.getItem(item.getId(), user.getId()).getDescription());
+    }
+
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "shareit.datasource.replica-urls=jdbc:h2:mem:shareit",
+        "shareit.datasource.lag-query=SELECT 0"
+})
+class ReplicaDataSourceConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void readsAndWritesGoThroughRoutingDataSource() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        assertInstanceOf(ReplicaRoutingDataSource.class, ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource());
+
+        UserDto user = userService.createUser(new UserDto(null, "replica", "replica@ya.ru"));
+
+        assertTrue(userService.getAllUsers(PageCursor.of(user.getId() - 1), 1).stream()
+                .anyMatch(u -> u.getId().equals(user.getId())));
+        userService.deleteUser(user.getId());
+    }
+
+}
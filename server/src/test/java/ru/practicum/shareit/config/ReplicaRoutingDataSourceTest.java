@@ -0,0 +1,110 @@
+package ru.practicum.shareit.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaTemplate;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long currentUser;
+
+    @BeforeEach
+    void beforeEach() {
+        DataSource replica = h2("replica");
+        replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+        replicaTemplate.update("DELETE FROM replica_lag");
+        replicaTemplate.update("INSERT INTO replica_lag VALUES (0)");
+
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setLagQuery("SELECT seconds FROM replica_lag");
+        properties.setMaxReplicaLag(Duration.ofSeconds(2));
+        properties.setLagCheckInterval(Duration.ofHours(1));
+        properties.setStickiness(Duration.ofMinutes(1));
+        routingDataSource = new ReplicaRoutingDataSource(h2("primary"), List.of(replica), properties,
+                () -> currentUser);
+        routingDataSource.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        routingDataSource.close();
+    }
+
+    @Test
+    void readOnlyTransaction_goesToReplica() {
+        assertEquals("REPLICA", database(readOnly));
+        assertEquals("PRIMARY", database(readWrite));
+    }
+
+    @Test
+    void laggingReplica_isSkipped() {
+        replicaTemplate.update("UPDATE replica_lag SET seconds = 5");
+        routingDataSource.checkReplicas();
+
+        assertEquals("PRIMARY", database(readOnly));
+
+        replicaTemplate.update("UPDATE replica_lag SET seconds = 1");
+        routingDataSource.checkReplicas();
+
+        assertEquals("REPLICA", database(readOnly));
+    }
+
+    @Test
+    void userWhoWrote_readsFromPrimary() {
+        currentUser = 1L;
+        assertEquals("REPLICA", database(readOnly));
+
+        database(readWrite);
+
+        assertEquals("PRIMARY", database(readOnly));
+        currentUser = 2L;
+        assertEquals("REPLICA", database(readOnly));
+    }
+
+    @Test
+    void rolledBackWrite_doesNotStick() {
+        currentUser = 1L;
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+            status.setRollbackOnly();
+        });
+
+        assertEquals("REPLICA", database(readOnly));
+    }
+
+    private String database(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+}
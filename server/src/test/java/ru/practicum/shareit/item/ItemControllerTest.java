@@ -9,15 +9,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.FreeWindowDto;
 import ru.practicum.shareit.booking.dto.InfoBookingDto;
 import ru.practicum.shareit.item.dto.AnswerItemDto;
+import ru.practicum.shareit.item.dto.BatchItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -78,6 +82,23 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(itemDto.getRequestId())));
     }
 
+    @Test
+    void createItems() throws Exception {
+        ItemDto itemDto2 = new ItemDto(2L, "item2", "des2", true, owner, null);
+        when(itemService.createItems(anyLong(), any())).thenReturn(List.of(itemDto, itemDto2));
+
+        mockMvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(new BatchItemDto(List.of(itemDto, itemDto2))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[1].id", is(2)));
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(anyLong(), any(), anyLong())).thenReturn(itemDto);
@@ -106,6 +127,31 @@ class ItemControllerTest {
                 .andExpect(content().json(mapper.writeValueAsString(answerItemDto)));
     }
 
+    @Test
+    void getItemAvailability() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(1L, start, start.plusHours(2), true,
+                List.of(new FreeWindowDto(start, null)));
+        when(itemService.getItemAvailability(1L, start, Duration.ofHours(2), 3)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{id}/availability", itemDto.getId())
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("duration", "PT2H")
+                        .param("count", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available", is(true)))
+                .andExpect(jsonPath("$.freeWindows", hasSize(1)));
+    }
+
+    @Test
+    void getItemAvailability_withWrongDuration() throws Exception {
+        mockMvc.perform(get("/items/{id}/availability", itemDto.getId())
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("duration", "PT0S"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getItemsByUser() throws Exception {
         when(itemService.getItemsByUser(anyLong(), any())).thenReturn(List.of(answerItemDto));
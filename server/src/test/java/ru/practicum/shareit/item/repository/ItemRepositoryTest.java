@@ -149,4 +149,12 @@ class ItemRepositoryTest {
         assertEquals(res.get(0).getOwner().toString(), item2.getOwner().toString());
         assertEquals(res.get(0).getRequest().getRequester().getId(), user1.getId());
     }
+
+    @Test
+    void findAllByRequest_IdIn() {
+        List<Item> res = itemRepository.findAllByRequest_IdInOrderByIdDesc(List.of(item2.getRequest().getId(), 999L));
+
+        assertEquals(res.size(), 1);
+        assertEquals(res.get(0).getId(), item2.getId());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchTest {
+
+    InMemoryItemSearch itemSearch;
+    ItemRepository itemRepository;
+    User owner;
+    Item drill;
+    Item saw;
+    Item hammer;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = new User(1L, "owner", "owner@ya.ru");
+        drill = new Item(1L, "Дрель", "Простая дрель", true, owner, null);
+        saw = new Item(2L, "Пила", "Аккумуляторная пила", true, owner, null);
+        hammer = new Item(3L, "Hammer", "Big hammer", false, owner, null);
+        itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAllByAvailableTrueOrderById(any())).thenReturn(List.of(drill, saw));
+        itemSearch = new InMemoryItemSearch(itemRepository);
+        itemSearch.load();
+    }
+
+    @Test
+    void searchAvailableItems_substringInAnyCase() {
+        assertEquals(ids(itemSearch.searchAvailableItems("дРеЛ", PageRequest.of(0, 10))), List.of(1L));
+        assertEquals(ids(itemSearch.searchAvailableItems("умулятор", PageRequest.of(0, 10))), List.of(2L));
+        assertEquals(ids(itemSearch.searchAvailableItems("а", PageRequest.of(0, 10))), List.of(1L, 2L));
+    }
+
+    @Test
+    void searchAvailableItems_paged() {
+        assertEquals(ids(itemSearch.searchAvailableItems("р", PageRequest.of(0, 1))), List.of(1L));
+        assertEquals(ids(itemSearch.searchAvailableItems("р", PageRequest.of(1, 1))), List.of(2L));
+    }
+
+    @Test
+    void onItemSaved_updatesIndex() {
+        itemSearch.onItemSaved(hammer);
+        assertTrue(itemSearch.searchAvailableItems("hammer", PageRequest.of(0, 10)).isEmpty());
+
+        hammer.setAvailable(true);
+        itemSearch.onItemSaved(hammer);
+        assertEquals(ids(itemSearch.searchAvailableItems("hammer", PageRequest.of(0, 10))), List.of(3L));
+
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        itemSearch.onItemSaved(drill);
+        assertTrue(itemSearch.searchAvailableItems("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(ids(itemSearch.searchAvailableItems("перфо", PageRequest.of(0, 10))), List.of(1L));
+
+        saw.setAvailable(false);
+        itemSearch.onItemSaved(saw);
+        assertTrue(itemSearch.searchAvailableItems("пила", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void load_manyPages_keepsPostingsSorted() {
+        List<Item> all = new ArrayList<>();
+        for (long id = 1; id <= 2_500; id++) {
+            all.add(new Item(id, "Дрель " + id, "Простая", true, owner, null));
+        }
+        when(itemRepository.findAllByAvailableTrueOrderById(any())).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            int from = (int) page.getOffset();
+            return all.subList(Math.min(from, all.size()), Math.min(from + page.getPageSize(), all.size()));
+        });
+        InMemoryItemSearch loaded = new InMemoryItemSearch(itemRepository);
+
+        loaded.load();
+
+        assertEquals(ids(loaded.searchAvailableItems("дрель", PageRequest.of(1_000, 2))), List.of(2_001L, 2_002L));
+        assertEquals(ids(loaded.searchAvailableItems("ль 2500", PageRequest.of(0, 10))), List.of(2_500L));
+    }
+
+    @Test
+    void searchAvailableItems_beforeLoad_usesLikeQuery() {
+        InMemoryItemSearch notLoaded = new InMemoryItemSearch(itemRepository);
+        when(itemRepository.searchAvailableItems("дрель", PageRequest.of(0, 10))).thenReturn(List.of(drill));
+
+        assertEquals(ids(notLoaded.searchAvailableItems("дрель", PageRequest.of(0, 10))), List.of(1L));
+        verify(itemRepository).searchAvailableItems("дрель", PageRequest.of(0, 10));
+    }
+
+    @Test
+    void load_replaysChangesSavedDuringLoad() {
+        InMemoryItemSearch loading = new InMemoryItemSearch(itemRepository);
+        when(itemRepository.findAllByAvailableTrueOrderById(any())).thenAnswer(invocation -> {
+            Item renamed = new Item(1L, "Перфоратор", "Мощный", true, owner, null);
+            loading.onItemSaved(renamed);
+            return List.of(new Item(1L, "Дрель", "Простая дрель", true, owner, null), saw);
+        });
+
+        loading.load();
+
+        assertTrue(loading.searchAvailableItems("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(ids(loading.searchAvailableItems("перфо", PageRequest.of(0, 10))), List.of(1L));
+    }
+
+    @Test
+    void onOwnerUpdated_refreshesOwnerOfIndexedItems() {
+        itemSearch.onOwnerUpdated(new User(owner.getId(), "renamed", "renamed@ya.ru"));
+
+        List<Item> found = itemSearch.searchAvailableItems("дрель", PageRequest.of(0, 10));
+        assertEquals(found.get(0).getOwner().getName(), "renamed");
+        assertEquals(found.get(0).getOwner().getEmail(), "renamed@ya.ru");
+    }
+
+    @Test
+    void onOwnerDeleted_evictsOwnedItems() {
+        User other = new User(2L, "other", "other@ya.ru");
+        itemSearch.onItemSaved(new Item(4L, "Пила", "Ручная", true, other, null));
+
+        itemSearch.onOwnerDeleted(owner.getId());
+
+        assertEquals(ids(itemSearch.searchAvailableItems("пила", PageRequest.of(0, 10))), List.of(4L));
+        assertTrue(itemSearch.searchAvailableItems("дрель", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+}
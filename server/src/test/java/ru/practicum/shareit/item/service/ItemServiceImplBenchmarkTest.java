@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.LikeItemSearch;
+import ru.practicum.shareit.mapper.EntityMapperImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Owner item listing cost against listing size. Run with {@code mvn test -Dbenchmark=true}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemServiceImplBenchmarkTest {
+
+    private static final int[] SIZES = {1_000, 2_000, 4_000, 8_000};
+    private static final int ROUNDS = 20;
+    private static final int REPEATS = 5;
+    /**
+     * Growth exponent of the per-item cost over the sizes: 0 for a linear listing, 1 for a quadratic one.
+     */
+    private static final double MAX_PER_ITEM_GROWTH = 0.3;
+
+    @Test
+    void getItemsByUser_scalesLinearly() {
+        measure(SIZES[SIZES.length - 1]);
+        double[] nanosPerItem = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            nanosPerItem[i] = Double.MAX_VALUE;
+            for (int r = 0; r < REPEATS; r++) {
+                nanosPerItem[i] = Math.min(nanosPerItem[i], measure(SIZES[i]));
+            }
+            log.info("getItemsByUser: {} items -> {} ns/item", SIZES[i], String.format("%.1f", nanosPerItem[i]));
+        }
+
+        double growth = growthExponent(nanosPerItem);
+        log.info("getItemsByUser: per-item cost grows as n^{}", String.format("%.2f", growth));
+        assertTrue(growth < MAX_PER_ITEM_GROWTH,
+                "Cost per item must stay flat as the listing grows, but grows as n^" + growth);
+    }
+
+    /**
+     * Least-squares slope of log(cost per item) over log(size).
+     */
+    private static double growthExponent(double[] nanosPerItem) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < SIZES.length; i++) {
+            meanX += Math.log(SIZES[i]) / SIZES.length;
+            meanY += Math.log(nanosPerItem[i]) / SIZES.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < SIZES.length; i++) {
+            double dx = Math.log(SIZES[i]) - meanX;
+            covariance += dx * (Math.log(nanosPerItem[i]) - meanY);
+            variance += dx * dx;
+        }
+        return covariance / variance;
+    }
+
+    private static double measure(int size) {
+        User owner = new User(1L, "owner", "owner@ya.ru");
+        User booker = new User(2L, "booker", "booker@ya.ru");
+        LocalDateTime now = LocalDateTime.now();
+        List<Item> items = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (long id = 1; id <= size; id++) {
+            Item item = new Item(id, "item" + id, "desc" + id, true, owner, null);
+            items.add(item);
+            bookings.add(new Booking(id, now.minusDays(2), now.minusDays(1), item, booker, Status.APPROVED));
+            bookings.add(new Booking(id + size, now.plusDays(1), now.plusDays(2), item, booker, Status.WAITING));
+            comments.add(new Comment(id, "text" + id, item, booker, now));
+            comments.add(new Comment(id + size, "text" + id, item, booker, now));
+        }
+
+        UserRepository userRepository = mock(UserRepository.class);
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        CommentRepository commentRepository = mock(CommentRepository.class);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findByOwner_IdOrderById(anyLong(), any())).thenReturn(items);
+        when(commentRepository.findAllByItemsId(any())).thenReturn(comments);
+        when(bookingRepository.findLastAndNextBookings(any(), anyLong(), any()))
+                .thenReturn(bookings);
+        ItemService itemService = new ItemServiceImpl(mock(UserService.class), bookingRepository, commentRepository,
+                itemRepository, userRepository, mock(ItemRequestRepository.class), new LikeItemSearch(itemRepository),
+                new EntityMapperImpl(), new AvailabilityIndex(bookingRepository,
+                mock(PlatformTransactionManager.class), 1_000, Duration.ofMinutes(10)));
+
+        for (int i = 0; i < ROUNDS; i++) {
+            itemService.getItemsByUser(owner.getId(), PageRequest.of(0, size));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            itemService.getItemsByUser(owner.getId(), PageRequest.of(0, size));
+        }
+        return (double) (System.nanoTime() - start) / ROUNDS / size;
+    }
+
+}
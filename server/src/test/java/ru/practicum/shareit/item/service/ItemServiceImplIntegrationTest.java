@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,14 +20,18 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
 @SpringBootTest
@@ -46,6 +52,9 @@ class ItemServiceImplIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void createItem() {
         User user = new User();
@@ -67,6 +76,28 @@ class ItemServiceImplIntegrationTest {
 
     }
 
+    @Test
+    void createItems_insertsInBatchesAndKeepsOrder() {
+        User savedUser = userRepository.save(new User(null, "Alex", "alex@ya.ru"));
+        List<ItemDto> itemDtos = IntStream.range(0, 60)
+                .mapToObj(i -> new ItemDto(null, "item" + i, "desc", true, null, null))
+                .collect(Collectors.toList());
+        userRepository.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemDto> savedItems = itemService.createItems(savedUser.getId(), itemDtos);
+        itemRepository.flush();
+
+        assertEquals(60, savedItems.size());
+        for (int i = 0; i < savedItems.size(); i++) {
+            assertEquals("item" + i, savedItems.get(i).getName());
+            assertNotNull(savedItems.get(i).getId());
+        }
+        assertEquals(60, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 6, "Items must be inserted in JDBC batches");
+    }
+
     @Test
     void createItem_invalidItemRequest() {
         User user = new User();
@@ -295,7 +326,7 @@ class ItemServiceImplIntegrationTest {
         commentDto.setAuthorName(savedUser.getName());
 
         assertThrows(EntityNotFoundException.class,
-                () -> itemService.createComment(item.getId(), 99L, commentDto));
+                () -> itemService.createComment(item.getId(), Long.MAX_VALUE, commentDto));
     }
 
 }
\ No newline at end of file
@@ -8,17 +8,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.availability.AvailabilityIndex;
+import ru.practicum.shareit.booking.dto.InfoBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.EntityNotAvailable;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.AnswerItemDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.LikeItemSearch;
 import ru.practicum.shareit.mapper.EntityMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -27,9 +32,11 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -38,6 +45,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.model.Status.APPROVED;
 
@@ -68,6 +78,9 @@ class ItemServiceImplTest {
     @Autowired
     EntityMapper mapper;
 
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     User user1;
     User user2;
     UserDto userDto1;
@@ -83,7 +96,8 @@ class ItemServiceImplTest {
     void beforeEach() {
         pageable =  PageRequest.of(0, 10);
         itemService = new ItemServiceImpl(userService, bookingRepository, commentRepository,
-                itemRepository, userRepository, itemRequestRepository, mapper);
+                itemRepository, userRepository, itemRequestRepository, new LikeItemSearch(itemRepository), mapper,
+                new AvailabilityIndex(bookingRepository, transactionManager, 1_000, Duration.ofMinutes(10)));
         user1 = new User(1L, "user1", "mail1@ya.ru");
         user2 = new User(2L, "user2", "mail2@ya.ru");
         userDto1 = new UserDto(1L, "user1", "mail1@ya.ru");
@@ -125,6 +139,42 @@ class ItemServiceImplTest {
         assertThrows(EntityNotFoundException.class, () -> itemService.createItem(user1.getId(), itemDto1));
     }
 
+    @Test
+    void createItems() {
+        ItemDto itemDto2 = new ItemDto(null, "item2", "des2", true, null, request1.getId());
+        ItemDto itemDto3 = new ItemDto(null, "item3", "des3", false, null, null);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of(request1));
+        when(itemRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ItemDto> res = itemService.createItems(user1.getId(), List.of(itemDto1, itemDto2, itemDto3));
+
+        assertEquals(res.size(), 3);
+        assertEquals(res.get(0).getName(), itemDto1.getName());
+        assertNull(res.get(0).getId());
+        assertEquals(res.get(1).getRequestId(), request1.getId());
+        assertEquals(res.get(2).getName(), itemDto3.getName());
+        assertNull(res.get(2).getRequestId());
+        verify(userRepository, times(1)).findById(user1.getId());
+        verify(itemRequestRepository, times(1)).findAllById(Set.of(request1.getId()));
+    }
+
+    @Test
+    void createItems_withWrongItemRequestId() {
+        itemDto1.setRequestId(99L);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
+        when(itemRequestRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> itemService.createItems(user1.getId(), List.of(itemDto1)));
+        verify(itemRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createItems_whenEmpty() {
+        assertThrows(EntityNotAvailable.class, () -> itemService.createItems(user1.getId(), List.of()));
+    }
+
     @Test
     void updateItem() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user1));
@@ -178,16 +228,42 @@ class ItemServiceImplTest {
         assertEquals(res.getComments().size(), 0);
     }
 
+    @Test
+    void getItemAvailability() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+        when(bookingRepository.findActiveBookings(anyLong(), any(), any())).thenReturn(List.of(
+                new InfoBookingDto(1L, 2L, start.plusHours(1), start.plusHours(2))));
+
+        ItemAvailabilityDto res = itemService.getItemAvailability(item1.getId(), start, Duration.ofHours(2), 5);
+
+        assertEquals(res.getAvailable(), false);
+        assertEquals(res.getEnd(), start.plusHours(2));
+        assertEquals(res.getFreeWindows().size(), 1);
+        assertEquals(res.getFreeWindows().get(0).getStart(), start.plusHours(2));
+        assertNull(res.getFreeWindows().get(0).getEnd());
+    }
+
+    @Test
+    void getItemAvailability_whenItemUnavailable() {
+        item1.setAvailable(false);
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item1));
+
+        ItemAvailabilityDto res = itemService.getItemAvailability(item1.getId(), LocalDateTime.now(),
+                Duration.ofHours(1), 5);
+
+        assertEquals(res.getAvailable(), false);
+        assertEquals(res.getFreeWindows().size(), 0);
+    }
+
     @Test
     void getItemsByUser() {
         List<Item> items = List.of(item1, item2);
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRepository.findByOwner_IdOrderById(anyLong(), any())).thenReturn(items);
         when(commentRepository.findAllByItemsId(any())).thenReturn(List.of());
-        when(bookingRepository.findFirstByItem_IdInAndItem_Owner_IdAndStartIsBefore(any(), anyLong(), any(), any()))
-                .thenReturn(List.of(booking1));
-        when(bookingRepository.findFirstByItem_IdInAndItem_Owner_IdAndStartIsAfterAndStatusIsNotAndStatusIsNot(
-                any(), anyLong(), any(), any(), any(), any())).thenReturn(List.of(booking2));
+        when(bookingRepository.findLastAndNextBookings(any(), anyLong(), any()))
+                .thenReturn(List.of(booking1, booking2));
 
         List<AnswerItemDto> res = itemService.getItemsByUser(user1.getId(), pageable);
 
@@ -216,6 +292,23 @@ class ItemServiceImplTest {
         assertEquals(res.get(1).getComments().size(), 0);
     }
 
+    @Test
+    void getItemsByUser_commentsGroupedByItem() {
+        Comment comment1 = new Comment(1L, "text1", item1, user2, LocalDateTime.now());
+        Comment comment2 = new Comment(2L, "text2", item1, user2, LocalDateTime.now());
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findByOwner_IdOrderById(anyLong(), any())).thenReturn(List.of(item1, item2));
+        when(commentRepository.findAllByItemsId(any())).thenReturn(List.of(comment1, comment2));
+        when(bookingRepository.findLastAndNextBookings(any(), anyLong(), any()))
+                .thenReturn(List.of());
+
+        List<AnswerItemDto> res = itemService.getItemsByUser(user1.getId(), pageable);
+
+        assertEquals(res.get(0).getComments().size(), 2);
+        assertEquals(res.get(0).getComments().get(0).getText(), comment1.getText());
+        assertEquals(res.get(1).getComments().size(), 0);
+    }
+
     @Test
     void getItemsByUser_wrongUser() {
         when(userRepository.existsById(anyLong())).thenReturn(false);
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.migration;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.datasource.generate-unique-name=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void fillTables() {
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'user' || x, 'user' || x || '@ya.ru' FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO requests (description, requester_id, creation_date) " +
+                "SELECT 'req' || x, MOD(x, 100) + 1, DATEADD('HOUR', x, CURRENT_TIMESTAMP) FROM SYSTEM_RANGE(1, 500)");
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id, request_id) " +
+                "SELECT 'item' || x, 'desc' || x, MOD(x, 2) = 0, MOD(x, 100) + 1, MOD(x, 500) + 1 " +
+                "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "SELECT DATEADD('HOUR', x, CURRENT_TIMESTAMP), DATEADD('HOUR', x + 1, CURRENT_TIMESTAMP), " +
+                "MOD(x, 1000) + 1, MOD(x, 100) + 1, CASE MOD(x, 4) WHEN 0 THEN 'WAITING' ELSE 'APPROVED' END " +
+                "FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, create_date) " +
+                "SELECT 'text' || x, MOD(x, 1000) + 1, MOD(x, 100) + 1, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 3000)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void bookingsByBookerAndStatus() {
+        assertIndexed("BOOKINGS_BOOKER_STATUS_START_IDX",
+                "SELECT * FROM bookings WHERE booker_id = 1 AND status = 'WAITING' ORDER BY start_date DESC");
+    }
+
+    @Test
+    void bookingsByItem() {
+        assertIndexed("BOOKINGS_ITEM_START_IDX",
+                "SELECT * FROM bookings WHERE item_id = 1 AND start_date > CURRENT_TIMESTAMP");
+    }
+
+    @Test
+    void bookingsByItemAndBooker() {
+        assertIndexed("BOOKINGS_ITEM_BOOKER_END_IDX",
+                "SELECT COUNT(*) FROM bookings WHERE item_id = 1 AND booker_id = 1 AND end_date < CURRENT_TIMESTAMP");
+    }
+
+    @Test
+    void requestsByOthers() {
+        assertIndexed("REQUESTS_CREATED_IDX",
+                "SELECT * FROM requests WHERE requester_id <> 1 ORDER BY creation_date DESC LIMIT 10");
+    }
+
+    /**
+     * The remaining access paths are equality lookups that H2 serves from the indexes it creates for foreign keys,
+     * so for them only the presence of the migration index is checked.
+     */
+    @Test
+    void migrationIndexesPresent() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE table_schema = 'PUBLIC'",
+                String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "bookings_booker_start_idx",
+                "bookings_booker_status_start_idx",
+                "bookings_item_start_idx",
+                "bookings_item_booker_end_idx",
+                "items_owner_idx",
+                "items_request_idx",
+                "comments_item_idx",
+                "requests_requester_created_idx",
+                "requests_created_idx")), indexes.toString());
+    }
+
+    private void assertIndexed(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertTrue(plan != null && plan.contains("PUBLIC." + index), plan);
+    }
+}
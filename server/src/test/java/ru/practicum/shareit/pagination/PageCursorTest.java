@@ -0,0 +1,37 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.EntityNotAvailable;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodeAndDecode_bookingCursor() {
+        PageCursor cursor = PageCursor.of(LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6000), 42L);
+
+        PageCursor res = PageCursor.decode(cursor.encode());
+
+        assertEquals(res, cursor);
+    }
+
+    @Test
+    void encodeAndDecode_itemCursor() {
+        PageCursor res = PageCursor.decode(PageCursor.of(7L).encode());
+
+        assertEquals(res.getId(), 7L);
+        assertNull(res.getStart());
+    }
+
+    @Test
+    void decode_wrongToken() {
+        assertThrows(EntityNotAvailable.class, () -> PageCursor.decode("%%%"));
+        assertThrows(EntityNotAvailable.class, () -> PageCursor.decode(""));
+    }
+
+}
@@ -28,6 +28,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -106,7 +109,7 @@ class ItemRequestServiceImplTest {
     void getUsersItemRequests() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong())).thenReturn(listRequests);
-        when(itemRepository.findAllByRequest_IdOrderByIdDesc(anyLong())).thenReturn(listItems);
+        when(itemRepository.findAllByRequest_IdInOrderByIdDesc(anyList())).thenReturn(listItems);
 
         List<AnswerItemRequestDto> res = itemRequestService.getUsersItemRequests(1L);
 
@@ -116,6 +119,24 @@ class ItemRequestServiceImplTest {
         assertEquals(itemRequest.getId(), res.get(0).getId());
         assertEquals(itemRequest.getDescription(), res.get(0).getDescription());
         assertEquals(itemRequest.getCreated(), res.get(0).getCreated());
+        assertEquals(1, res.get(0).getItems().size());
+    }
+
+    @Test
+    void getUsersItemRequests_itemsFetchedOnceForAllRequests() {
+        ItemRequest itemRequest2 = new ItemRequest(2L, "req2", user, LocalDateTime.now());
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRequestRepository.findAllByRequesterIdOrderByCreatedDesc(anyLong()))
+                .thenReturn(List.of(itemRequest, itemRequest2));
+        when(itemRepository.findAllByRequest_IdInOrderByIdDesc(anyList())).thenReturn(listItems);
+
+        List<AnswerItemRequestDto> res = itemRequestService.getUsersItemRequests(1L);
+
+        assertEquals(2, res.size());
+        assertEquals(1, res.get(0).getItems().size());
+        assertEquals(0, res.get(1).getItems().size());
+        verify(itemRepository, times(1)).findAllByRequest_IdInOrderByIdDesc(List.of(1L, 2L));
+        verify(itemRepository, never()).findAllByRequest_IdOrderByIdDesc(anyLong());
     }
 
     @Test
@@ -130,7 +151,7 @@ class ItemRequestServiceImplTest {
     void getItemRequests() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(itemRequestRepository.findRequestsWithoutOwner(anyLong(), any())).thenReturn(listRequests);
-        when(itemRepository.findAllByRequest_IdOrderByIdDesc(anyLong())).thenReturn(listItems);
+        when(itemRepository.findAllByRequest_IdInOrderByIdDesc(anyList())).thenReturn(listItems);
 
         List<AnswerItemRequestDto> res = itemRequestService.getItemRequests(1L, pageable);
 
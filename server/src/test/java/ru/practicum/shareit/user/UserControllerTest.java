@@ -7,17 +7,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -57,6 +66,18 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(userDto.getEmail())));
     }
 
+    @Test
+    void createUser_whenEmailTaken_conflict() throws Exception {
+        when(userService.createUser(any())).thenThrow(new ConflictException("Mail user@email.ru already used"));
+
+        mockMvc.perform(post("/users")
+                        .content(mapper.writeValueAsString(userDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void updateUser() throws Exception {
         when(userService.updateUser(any(), anyLong())).thenReturn(userDto);
@@ -83,13 +104,86 @@ class UserControllerTest {
 
     @Test
     void getAllUsers() throws Exception {
-        when(userService.getAllUsers()).thenReturn(List.of(userDto));
+        UserDto userDto2 = new UserDto(2L, "user2", "user2@email.ru");
+        streamUsers(userDto, userDto2);
+
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(userDto, userDto2))));
+    }
+
+    @Test
+    void getAllUsers_ndjson() throws Exception {
+        UserDto userDto2 = new UserDto(2L, "user2", "user2@email.ru");
+        streamUsers(userDto, userDto2);
+
+        MvcResult result = mockMvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"
+                        + mapper.writeValueAsString(userDto2) + "\n"));
+    }
+
+    @Test
+    void getAllUsers_paged() throws Exception {
+        when(userService.getAllUsers(any(Pageable.class))).thenReturn(List.of(userDto));
+
+        mockMvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PageCursor.HEADER, PageCursor.of(userDto.getId()).encode()))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
+    }
+
+    @Test
+    void getAllUsers_afterCursor() throws Exception {
+        when(userService.getAllUsers(eq(PageCursor.of(1L)), eq(2))).thenReturn(List.of(userDto));
+
+        mockMvc.perform(get("/users")
+                        .param("size", "2")
+                        .param("after", PageCursor.of(1L).encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PageCursor.HEADER))
                 .andExpect(content().json(mapper.writeValueAsString(List.of(userDto))));
     }
 
+    @Test
+    void getAllUsers_invalidPage_badRequest() throws Exception {
+        mockMvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/users")
+                        .param("from", "-1")
+                        .param("size", "10"))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).getAllUsers(any(Pageable.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamUsers(UserDto... users) {
+        doAnswer(invocation -> {
+            Consumer<UserDto> consumer = invocation.getArgument(0);
+            for (UserDto user : users) {
+                consumer.accept(user);
+            }
+            return null;
+        }).when(userService).streamAllUsers(any());
+    }
+
     @Test
     void deleteUser() throws Exception {
         mockMvc.perform(delete("/users/{userId}", userDto.getId()))
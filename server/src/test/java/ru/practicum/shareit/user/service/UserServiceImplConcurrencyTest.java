@@ -0,0 +1,78 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserServiceImplConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> usersId = new ArrayList<>();
+
+    @AfterEach
+    void afterEach() {
+        userRepository.deleteAllById(usersId);
+    }
+
+    @Test
+    void updateUser_sameEmailFromTwoUsers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String email = "taken" + round + "@ya.ru";
+                User first = userRepository.save(new User(null, "first", "first" + round + "@ya.ru"));
+                User second = userRepository.save(new User(null, "second", "second" + round + "@ya.ru"));
+                usersId.add(first.getId());
+                usersId.add(second.getId());
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Boolean> firstResult = executor.submit(() -> claim(start, first.getId(), email));
+                Future<Boolean> secondResult = executor.submit(() -> claim(start, second.getId(), email));
+                start.countDown();
+
+                assertTrue(firstResult.get(10, TimeUnit.SECONDS) ^ secondResult.get(10, TimeUnit.SECONDS));
+                assertEquals(1, userRepository.findAllById(List.of(first.getId(), second.getId())).stream()
+                        .filter(user -> email.equals(user.getEmail()))
+                        .count());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean claim(CountDownLatch start, Long userId, String email) throws InterruptedException {
+        UserDto userDto = new UserDto();
+        userDto.setEmail(email);
+        start.await();
+        try {
+            userService.updateUser(userDto, userId);
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+}
@@ -3,15 +3,17 @@ package ru.practicum.shareit.user.service;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,7 +58,7 @@ class UserServiceImplIntegrationTest {
         secondUserDto.setName("Max");
         secondUserDto.setEmail(email);
 
-        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(secondUserDto));
+        assertThrows(ConflictException.class, () -> userService.createUser(secondUserDto));
     }
 
     @Test
@@ -107,6 +109,28 @@ class UserServiceImplIntegrationTest {
         assertThrows(ConflictException.class, () -> userService.updateUser(userDto, savedUser.getId()));
     }
 
+    @Test
+    public void updateUser_duplicateEmailIgnoreCase() {
+        User user = userRepository.save(new User(null, "Alex", "alex@ya.ru"));
+        userRepository.save(new User(null, "Max", "max@ya.ru"));
+
+        UserDto userDto = new UserDto();
+        userDto.setEmail("MAX@ya.ru");
+
+        assertThrows(ConflictException.class, () -> userService.updateUser(userDto, user.getId()));
+    }
+
+    @Test
+    public void updateUser_keepOwnEmail() {
+        User user = userRepository.save(new User(null, "Alex", "alex@ya.ru"));
+
+        UserDto userDto = new UserDto();
+        userDto.setName("Vlad");
+        userDto.setEmail("alex@ya.ru");
+
+        assertEquals(userService.updateUser(userDto, user.getId()).getName(), "Vlad");
+    }
+
     @Test
     void getUser() {
         User user = new User();
@@ -135,7 +159,7 @@ class UserServiceImplIntegrationTest {
         user2.setEmail("max@ya.ru");
         userRepository.save(user2);
 
-        List<UserDto> usersDtoRespond = userService.getAllUsers();
+        List<UserDto> usersDtoRespond = userService.getAllUsers(PageRequest.of(0, 10));
 
         assertEquals(usersDtoRespond.size(), 2);
         assertEquals(usersDtoRespond.get(0).getName(), user1.getName());
@@ -146,7 +170,7 @@ class UserServiceImplIntegrationTest {
 
     @Test
     void getAllUsers_beforeAddUsers() {
-        List<UserDto> usersDtoRespond = userService.getAllUsers();
+        List<UserDto> usersDtoRespond = userService.getAllUsers(PageRequest.of(0, 10));
 
         assertEquals(usersDtoRespond.size(), 0);
     }
@@ -163,4 +187,33 @@ class UserServiceImplIntegrationTest {
 
         assertEquals(rez, false);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllUsers_pagedAndByCursor() {
+        User user1 = userRepository.save(new User(null, "Alex", "alex@ya.ru"));
+        User user2 = userRepository.save(new User(null, "Max", "max@ya.ru"));
+        User user3 = userRepository.save(new User(null, "Vlad", "vlad@ya.ru"));
+
+        List<UserDto> secondPage = userService.getAllUsers(PageRequest.of(1, 2));
+        List<UserDto> afterFirst = userService.getAllUsers(PageCursor.of(user1.getId()), 10);
+
+        assertEquals(secondPage.size(), 1);
+        assertEquals(secondPage.get(0).getId(), user3.getId());
+        assertEquals(afterFirst.size(), 2);
+        assertEquals(afterFirst.get(0).getId(), user2.getId());
+        assertEquals(afterFirst.get(1).getId(), user3.getId());
+    }
+
+    @Test
+    void streamAllUsers() {
+        User user1 = userRepository.save(new User(null, "Alex", "alex@ya.ru"));
+        User user2 = userRepository.save(new User(null, "Max", "max@ya.ru"));
+        List<UserDto> streamed = new ArrayList<>();
+
+        userService.streamAllUsers(streamed::add);
+
+        assertEquals(streamed.size(), 2);
+        assertEquals(streamed.get(0).getId(), user1.getId());
+        assertEquals(streamed.get(1).getEmail(), user2.getEmail());
+    }
+}
@@ -1,19 +1,19 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
-import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.mapper.EntityMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +21,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -35,12 +38,15 @@ class UserServiceImplTest {
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    ItemSearch itemSearch;
+
     User user;
     UserDto userDto;
 
     @BeforeEach
     void beforeEach() {
-        userService = new UserServiceImpl(userRepository, mapper);
+        userService = new UserServiceImpl(userRepository, mapper, itemSearch);
         user = new User(1L, "user", "mail@ya.ru");
         userDto = new UserDto(1L, "user", "mail@ya.ru");
     }
@@ -60,7 +66,8 @@ class UserServiceImplTest {
 
     @Test
     void createUser_WithDuplicateEmail() {
-        when(userRepository.save(any())).thenThrow(new ConstraintViolationException("", null, ""));
+        when(userRepository.save(any())).thenReturn(user);
+        doThrow(new DataIntegrityViolationException("")).when(userRepository).flush();
 
         assertThrows(ConflictException.class, () -> userService.createUser(userDto));
     }
@@ -69,8 +76,8 @@ class UserServiceImplTest {
     void updateUser() {
         UserDto newUserDto = new UserDto(null, "user2", "mail2@ya.ru");
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userRepository.save(any())).thenReturn(user);
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot(any(), anyLong())).thenReturn(false);
+        when(userRepository.saveAndFlush(any())).thenReturn(user);
 
         UserDto res = userService.updateUser(newUserDto, userDto.getId());
 
@@ -79,13 +86,14 @@ class UserServiceImplTest {
         assertEquals(userDto.getId(), res.getId());
         assertEquals(newUserDto.getName(), res.getName());
         assertEquals(newUserDto.getEmail(), res.getEmail());
+        verify(itemSearch).onOwnerUpdated(any());
     }
 
     @Test
     void updateUser_UpdateName() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userRepository.save(any())).thenReturn(user);
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot(any(), anyLong())).thenReturn(false);
+        when(userRepository.saveAndFlush(any())).thenReturn(user);
         UserDto newUserDto = new UserDto(null, "user2", null);
 
         UserDto res = userService.updateUser(newUserDto, userDto.getId());
@@ -100,8 +108,8 @@ class UserServiceImplTest {
     @Test
     void updateUser_UpdateMail() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(user));
-        when(userRepository.save(any())).thenReturn(user);
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot(any(), anyLong())).thenReturn(false);
+        when(userRepository.saveAndFlush(any())).thenReturn(user);
         UserDto newUserDto = new UserDto(null, null, "mail2@ya.ru");
 
         UserDto res = userService.updateUser(newUserDto, userDto.getId());
@@ -118,8 +126,18 @@ class UserServiceImplTest {
         User user2 = new User(2L, "user2", "mail2@ya.ru");
         UserDto newUserDto = new UserDto(null, null, "mail2@ya.ru");
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(userRepository.findAll()).thenReturn(List.of(user2));
-        when(userRepository.save(any())).thenReturn(user);
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot(user2.getEmail(), userDto.getId())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> userService.updateUser(newUserDto, userDto.getId()));
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void updateUser_MailTakenConcurrently() {
+        UserDto newUserDto = new UserDto(null, null, "mail2@ya.ru");
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userRepository.existsByEmailIgnoreCaseAndIdNot(any(), anyLong())).thenReturn(false);
+        when(userRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException(""));
 
         assertThrows(ConflictException.class, () -> userService.updateUser(newUserDto, userDto.getId()));
     }
@@ -137,4 +155,12 @@ class UserServiceImplTest {
         assertEquals(userDto.getEmail(), res.getEmail());
     }
 
-}
\ No newline at end of file
+    @Test
+    void deleteUser_evictsOwnedItemsFromSearch() {
+        userService.deleteUser(user.getId());
+
+        verify(userRepository).deleteById(user.getId());
+        verify(itemSearch).onOwnerDeleted(user.getId());
+    }
+
+}